@@ -0,0 +1,134 @@
+package com.github.jxen.math.benchmarks;
+
+import com.github.jxen.math.expression.CompiledExpression;
+import com.github.jxen.math.expression.Expression;
+import com.github.jxen.math.expression.Parser;
+import com.github.jxen.math.rational.BigRational;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares evaluation of the same formula through {@link Expression#evaluate(Map)} with compiled, decimal and rational
+ * evaluation.
+ *
+ * @author Denis Murashev
+ * @since Math Expression Parser 1.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluateBenchmark {
+
+  private static final String ARITHMETIC = "(x^3 - 2*x*y + y^2) / (1 + x*x) % 7 + abs(x - y)";
+
+  private final Map<String, Number> args = new HashMap<>();
+  private final MathContext context = MathContext.DECIMAL64;
+  private final double[] values = {1.5, 2.5};
+  private Expression expression;
+  private Expression arithmetic;
+  private CompiledExpression compiled;
+  private CompiledExpression optimized;
+  private double[] frame;
+
+  /**
+   * Parses formulas.
+   */
+  @Setup
+  public void setUp() {
+    args.put("x", 1.5);
+    args.put("y", 2.5);
+    expression = new Parser().compile(Formulas.SHORT, Formulas.VARIABLES);
+    arithmetic = new Parser().compile(ARITHMETIC, Formulas.VARIABLES);
+    compiled = expression.bind("x", "y");
+    optimized = expression.optimize().bind("x", "y");
+    frame = new double[optimized.getFrameSize()];
+    frame[0] = values[0];
+    frame[1] = values[1];
+  }
+
+  /**
+   * Evaluates expression tree with map of arguments.
+   *
+   * @return value
+   */
+  @Benchmark
+  public double evaluateMap() {
+    return expression.evaluate(args);
+  }
+
+  /**
+   * Evaluates compiled expression with positional arguments.
+   *
+   * @return value
+   */
+  @Benchmark
+  public double evaluateCompiled() {
+    return compiled.applyAsDouble(values);
+  }
+
+  /**
+   * Evaluates optimized expression with positional arguments, working frame is allocated on each call.
+   *
+   * @return value
+   */
+  @Benchmark
+  public double evaluateOptimized() {
+    return optimized.applyAsDouble(values);
+  }
+
+  /**
+   * Evaluates optimized expression in caller-owned frame.
+   *
+   * @return value
+   */
+  @Benchmark
+  public double evaluateFrame() {
+    return optimized.evaluateFrame(frame);
+  }
+
+  /**
+   * Evaluates arithmetic formula in {@code double}.
+   *
+   * @return value
+   */
+  @Benchmark
+  public double arithmeticDouble() {
+    return arithmetic.evaluate(args);
+  }
+
+  /**
+   * Evaluates arithmetic formula in {@link BigDecimal} with 16 digits.
+   *
+   * @return value
+   */
+  @Benchmark
+  public BigDecimal arithmeticDecimal() {
+    return arithmetic.evaluate(args, context);
+  }
+
+  /**
+   * Evaluates arithmetic formula in {@link BigRational}.
+   *
+   * @return value
+   */
+  @Benchmark
+  public BigRational arithmeticRational() {
+    return arithmetic.evaluateRational(args);
+  }
+}
@@ -0,0 +1,29 @@
+package com.github.jxen.math.benchmarks;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+final class Formulas {
+
+  static final List<String> VARIABLES = Collections.unmodifiableList(Arrays.asList("x", "y"));
+
+  static final String SHORT = "sin(x)^2 + cos(y)/(1 + x*y) - sqrt(abs(x - y))";
+
+  private static final String TERM = "sin(x*1.25)/(y+3)";
+  private static final int TERM_TOKENS = 12;
+  private static final int GROUP_TERMS = 100;
+
+  private Formulas() {
+  }
+
+  static String large(int tokens) {
+    StringBuilder builder = new StringBuilder("(").append(TERM);
+    int terms = 1;
+    for (int count = TERM_TOKENS; count < tokens; count += TERM_TOKENS) {
+      builder.append(terms % GROUP_TERMS == 0 ? ")+(" : "+").append(TERM);
+      terms++;
+    }
+    return builder.append(')').toString();
+  }
+}
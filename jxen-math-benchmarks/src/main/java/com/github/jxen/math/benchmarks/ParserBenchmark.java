@@ -0,0 +1,56 @@
+package com.github.jxen.math.benchmarks;
+
+import com.github.jxen.math.expression.Expression;
+import com.github.jxen.math.expression.Parser;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures tokenizing and parsing of short and large formulas by {@link Parser#compile(String, Iterable)}. Parser is
+ * created without cache, so every invocation tokenizes the whole formula. Large sizes grow tenfold, so average time
+ * growing tenfold as well shows that parsing is linear in formula length.
+ *
+ * @author Denis Murashev
+ * @since Math Expression Parser 1.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+  @Param({"short", "1000", "10000", "100000"})
+  private String size;
+
+  private String formula;
+
+  /**
+   * Builds formula of requested size.
+   */
+  @Setup
+  public void setUp() {
+    formula = "short".equals(size) ? Formulas.SHORT : Formulas.large(Integer.parseInt(size));
+  }
+
+  /**
+   * Parses formula.
+   *
+   * @return parsed expression
+   */
+  @Benchmark
+  public Expression compile() {
+    return new Parser().compile(formula, Formulas.VARIABLES);
+  }
+}
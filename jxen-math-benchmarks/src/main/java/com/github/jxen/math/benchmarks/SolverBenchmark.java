@@ -0,0 +1,131 @@
+package com.github.jxen.math.benchmarks;
+
+import com.github.jxen.math.expression.CompiledExpression;
+import com.github.jxen.math.expression.Expression;
+import com.github.jxen.math.expression.Parser;
+import com.github.jxen.math.expression.solver.Minimizer;
+import com.github.jxen.math.expression.solver.RootFinder;
+import com.github.jxen.math.expression.solver.Solution;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures root finding and minimization of typical formulas. Solver iterations and expression evaluations are
+ * reported as auxiliary operations, so their secondary scores are time per iteration and time per evaluation.
+ *
+ * @author Denis Murashev
+ * @since Math Expression Parser 1.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmark {
+
+  private final RootFinder finder = new RootFinder();
+  private final Minimizer minimizer = new Minimizer();
+  private final double[] start = {-1.2, 1};
+  private Expression equation;
+  private CompiledExpression rosenbrock;
+
+  /**
+   * Parses formulas.
+   */
+  @Setup
+  public void setUp() {
+    equation = new Parser().compile("x*exp(x) - 2", Collections.singleton("x"));
+    rosenbrock = new Parser().compile("(1-x)^2 + 100*(y-x^2)^2", Arrays.asList("x", "y")).bind("x", "y");
+  }
+
+  /**
+   * Solves equation with Newton method.
+   *
+   * @param counters iteration counters
+   * @return solution
+   */
+  @Benchmark
+  public Solution newton(Counters counters) {
+    return counters.record(finder.newton(equation, "x", 1));
+  }
+
+  /**
+   * Solves equation with Brent method.
+   *
+   * @param counters iteration counters
+   * @return solution
+   */
+  @Benchmark
+  public Solution brent(Counters counters) {
+    return counters.record(finder.brent(equation, "x", 0, 2));
+  }
+
+  /**
+   * Minimizes Rosenbrock function with Nelder-Mead method.
+   *
+   * @param counters iteration counters
+   * @return solution
+   */
+  @Benchmark
+  public Solution nelderMead(Counters counters) {
+    return counters.record(minimizer.nelderMead(rosenbrock, start, 0.5));
+  }
+
+  /**
+   * Minimizes Rosenbrock function with BFGS method.
+   *
+   * @param counters iteration counters
+   * @return solution
+   */
+  @Benchmark
+  public Solution bfgs(Counters counters) {
+    return counters.record(minimizer.bfgs(rosenbrock, start));
+  }
+
+  /**
+   * Iteration and evaluation counters.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Counters {
+
+    /**
+     * Number of solver iterations.
+     */
+    public long iterations;
+
+    /**
+     * Number of expression evaluations.
+     */
+    public long evaluations;
+
+    /**
+     * Clears counters before each measurement iteration.
+     */
+    @Setup(Level.Iteration)
+    public void clear() {
+      iterations = 0;
+      evaluations = 0;
+    }
+
+    Solution record(Solution solution) {
+      iterations += solution.getIterations();
+      evaluations += solution.getEvaluations();
+      return solution;
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package com.github.jxen.math.benchmarks;
+
+import com.github.jxen.math.expression.Expression;
+import com.github.jxen.math.expression.Parser;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Expression#simplify()} and {@link Expression#derivative(String)} for every built-in function
+ * applied to a non-trivial argument. Functions of several arguments get two or three arguments. Formula is parsed again before every invocation, so results cached inside
+ * expression tree are not reused.
+ *
+ * @author Denis Murashev
+ * @since Math Expression Parser 1.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransformBenchmark {
+
+  private static final Collection<String> BINARY = Arrays.asList("hypot", "atan2", "pow");
+
+  private static final Collection<String> TERNARY = Arrays.asList("min", "max", "sum", "clamp", "if");
+
+  @Param({"sqrt", "exp", "ln", "log", "sign", "abs", "sin", "cos", "tg", "ctg", "arcsin", "arccos", "arctg", "sh",
+      "ch", "th", "min", "max", "sum", "hypot", "atan2", "clamp", "pow", "if"})
+  private String function;
+
+  private String formula;
+  private Expression expression;
+
+  /**
+   * Builds formula using benchmarked function.
+   */
+  @Setup
+  public void setUp() {
+    String rest = "";
+    if (BINARY.contains(function)) {
+      rest = ", 0*x + y";
+    } else if (TERNARY.contains(function)) {
+      rest = ", 0*x + y, 2";
+    }
+    formula = "2*" + function + "(x^2*y + 0*x + 3*y/y" + rest + ") + " + function + "(x" + rest + ")*1";
+  }
+
+  /**
+   * Parses formula, so that each invocation starts with fresh expression tree.
+   */
+  @Setup(Level.Invocation)
+  public void parse() {
+    expression = new Parser().compile(formula, Formulas.VARIABLES);
+  }
+
+  /**
+   * Simplifies expression.
+   *
+   * @return simplified expression
+   */
+  @Benchmark
+  public Expression simplify() {
+    return expression.simplify();
+  }
+
+  /**
+   * Differentiates expression.
+   *
+   * @return derivative
+   */
+  @Benchmark
+  public Expression derivative() {
+    return expression.derivative("x");
+  }
+}
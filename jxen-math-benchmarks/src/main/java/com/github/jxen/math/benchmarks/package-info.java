@@ -0,0 +1,4 @@
+/**
+ * JMH Benchmarks of Math Expression Parser.
+ */
+package com.github.jxen.math.benchmarks;
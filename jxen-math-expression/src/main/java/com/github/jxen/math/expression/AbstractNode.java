@@ -1,5 +1,9 @@
 package com.github.jxen.math.expression;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -37,11 +41,54 @@ abstract class AbstractNode {
 
   abstract double evaluate(Map<String, ? extends Number> args);
 
-  abstract AbstractNode simplify();
+  abstract <T extends Number & Comparable<T>> T evaluate(Map<String, ? extends Number> args,
+      Arithmetic<T> arithmetic);
 
-  abstract AbstractNode derivative(String arg);
+  abstract Interval evaluateInterval(Map<String, Interval> box);
+
+  abstract Evaluator compile(Bindings bindings);
+
+  abstract BatchEvaluator compileBatch(Bindings bindings, int register);
+
+  abstract double forward(double[] args, double[] values, int[] operands);
+
+  abstract double tangent(int index, double[] values, int[] operands, double[] tangents, double[] direction);
 
-  abstract void setChildren(AbstractNode left, AbstractNode right);
+  abstract void backward(int index, double[] values, int[] operands, double[] adjoints, double[] gradient);
+
+  AbstractNode simplify() {
+    return simplify(new IdentityHashMap<>());
+  }
+
+  abstract AbstractNode simplify(Map<AbstractNode, AbstractNode> simplified);
+
+  abstract AbstractNode derivative(String arg);
 
   abstract Set<String> getVariables();
+
+  abstract boolean isPure();
+
+  boolean isConstant() {
+    return getVariables().isEmpty() && isPure();
+  }
+
+  abstract List<AbstractNode> getChildren();
+
+  abstract int getDepth();
+
+  abstract long getSize();
+
+  abstract AbstractNode intern(Map<List<Object>, AbstractNode> nodes);
+
+  static Set<String> merge(Set<String> left, Set<String> right) {
+    if (left.containsAll(right)) {
+      return left;
+    }
+    if (right.containsAll(left)) {
+      return right;
+    }
+    Set<String> variables = new HashSet<>(left);
+    variables.addAll(right);
+    return Collections.unmodifiableSet(variables);
+  }
 }
@@ -0,0 +1,50 @@
+package com.github.jxen.math.expression;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures memory allocated by current thread. Measurement relies on {@code com.sun.management.ThreadMXBean}, which is
+ * referenced only from nested holder class, so on platforms without it probe reports that measurement is not
+ * supported instead of failing to link.
+ */
+final class AllocationProbe {
+
+  private static final boolean SUPPORTED = probe();
+
+  private AllocationProbe() {
+  }
+
+  static boolean isSupported() {
+    return SUPPORTED;
+  }
+
+  static long allocatedBytes() {
+    return SUPPORTED ? Holder.allocatedBytes() : -1;
+  }
+
+  private static boolean probe() {
+    try {
+      return Holder.isSupported();
+    } catch (LinkageError e) {
+      return false;
+    }
+  }
+
+  private static final class Holder {
+
+    private static final java.lang.management.ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private Holder() {
+    }
+
+    static boolean isSupported() {
+      return THREADS instanceof com.sun.management.ThreadMXBean
+          && ((com.sun.management.ThreadMXBean) THREADS).isThreadAllocatedMemorySupported()
+          && ((com.sun.management.ThreadMXBean) THREADS).isThreadAllocatedMemoryEnabled();
+    }
+
+    static long allocatedBytes() {
+      return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+  }
+}
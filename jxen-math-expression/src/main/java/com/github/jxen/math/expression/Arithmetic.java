@@ -0,0 +1,102 @@
+package com.github.jxen.math.expression;
+
+import java.util.List;
+
+abstract class Arithmetic<T extends Number & Comparable<T>> {
+
+  abstract T valueOf(Number value);
+
+  abstract T plus(T left, T right);
+
+  abstract T minus(T left, T right);
+
+  abstract T multiply(T left, T right);
+
+  abstract T divide(T left, T right);
+
+  abstract T modulo(T left, T right);
+
+  abstract T power(T base, int exponent);
+
+  abstract T abs(T value);
+
+  T sqrt(T value) {
+    return approximate(Math.sqrt(value.doubleValue()));
+  }
+
+  final boolean isTrue(T value) {
+    return value.compareTo(valueOf(0)) != 0;
+  }
+
+  final T approximate(double value) {
+    if (Double.isNaN(value) || Double.isInfinite(value)) {
+      throw new ArithmeticException("Undefined value: " + value);
+    }
+    return valueOf(value);
+  }
+
+  final T apply(MathOperator operator, T left, T right) {
+    if (operator == Operators.PLUS) {
+      return plus(left, right);
+    }
+    if (operator == Operators.MINUS) {
+      return minus(left, right);
+    }
+    if (operator == Operators.MULTIPLY) {
+      return multiply(left, right);
+    }
+    if (operator == Operators.DIVIDE) {
+      return divide(left, right);
+    }
+    if (operator == Operators.MODULO) {
+      return modulo(left, right);
+    }
+    if (operator == Operators.POWER && valueOf(right.intValue()).compareTo(right) == 0) {
+      return power(left, right.intValue());
+    }
+    return approximate(operator.evaluate(left.doubleValue(), right.doubleValue()));
+  }
+
+  final T apply(MathFunction function, List<T> args) {
+    T first = args.get(0);
+    if (function == Functions.ABS) {
+      return abs(first);
+    }
+    if (function == Functions.SIGN) {
+      return valueOf(Integer.signum(first.compareTo(valueOf(0))));
+    }
+    if (function == Functions.SQRT) {
+      return sqrt(first);
+    }
+    if (function == Functions.MIN || function == Functions.MAX) {
+      int sign = function == Functions.MIN ? -1 : 1;
+      T result = first;
+      for (T arg : args) {
+        result = Integer.signum(arg.compareTo(result)) == sign ? arg : result;
+      }
+      return result;
+    }
+    if (function == Functions.SUM) {
+      T result = first;
+      for (T arg : args.subList(1, args.size())) {
+        result = plus(result, arg);
+      }
+      return result;
+    }
+    if (function == Functions.CLAMP) {
+      T result = first.compareTo(args.get(2)) > 0 ? args.get(2) : first;
+      return result.compareTo(args.get(1)) < 0 ? args.get(1) : result;
+    }
+    if (function == Functions.POW) {
+      return apply(Operators.POWER, first, args.get(1));
+    }
+    if (args.size() == 1) {
+      return approximate(function.value(first.doubleValue()));
+    }
+    double[] values = new double[args.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = args.get(i).doubleValue();
+    }
+    return approximate(function.value(values));
+  }
+}
@@ -0,0 +1,67 @@
+package com.github.jxen.math.expression;
+
+import com.github.jxen.math.common.ArithmeticAware;
+import com.github.jxen.math.rational.BigRational;
+import java.math.BigDecimal;
+import java.util.function.Function;
+
+final class AwareArithmetic<T extends Number & ArithmeticAware<T>> extends Arithmetic<T> {
+
+  static final AwareArithmetic<BigRational> RATIONAL = new AwareArithmetic<>(AwareArithmetic::toRational);
+
+  private final Function<Number, T> converter;
+
+  AwareArithmetic(Function<Number, T> converter) {
+    this.converter = converter;
+  }
+
+  @Override
+  T valueOf(Number value) {
+    return converter.apply(value);
+  }
+
+  @Override
+  T plus(T left, T right) {
+    return left.plus(right);
+  }
+
+  @Override
+  T minus(T left, T right) {
+    return left.minus(right);
+  }
+
+  @Override
+  T multiply(T left, T right) {
+    return left.multiply(right);
+  }
+
+  @Override
+  T divide(T left, T right) {
+    return left.div(right);
+  }
+
+  @Override
+  T modulo(T left, T right) {
+    return left.mod(right);
+  }
+
+  @Override
+  T power(T base, int exponent) {
+    return base.power(exponent);
+  }
+
+  @Override
+  T abs(T value) {
+    return value.abs();
+  }
+
+  private static BigRational toRational(Number value) {
+    if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+      return new BigRational(value.longValue());
+    }
+    if (value instanceof Double || value instanceof Float) {
+      return BigRational.valueOf(new BigDecimal(Double.toString(value.doubleValue())));
+    }
+    return BigRational.valueOf(value);
+  }
+}
@@ -0,0 +1,7 @@
+package com.github.jxen.math.expression;
+
+@FunctionalInterface
+interface BatchEvaluator {
+
+  void evaluate(double[][] columns, int offset, Block block);
+}
@@ -0,0 +1,43 @@
+package com.github.jxen.math.expression;
+
+import java.util.concurrent.RecursiveAction;
+
+final class BatchTask extends RecursiveAction {
+
+  static final int THRESHOLD = 16 * Block.SIZE;
+
+  private static final long serialVersionUID = 4237061536436402531L;
+
+  private final transient BatchEvaluator evaluator;
+  private final double[][] columns;
+  private final double[] out;
+  private final int from;
+  private final int to;
+
+  BatchTask(BatchEvaluator evaluator, double[][] columns, double[] out, int from, int to) {
+    this.evaluator = evaluator;
+    this.columns = columns;
+    this.out = out;
+    this.from = from;
+    this.to = to;
+  }
+
+  @Override
+  protected void compute() {
+    if (to - from <= THRESHOLD) {
+      evaluate(evaluator, columns, out, from, to);
+      return;
+    }
+    int middle = from + (to - from) / Block.SIZE / 2 * Block.SIZE;
+    invokeAll(new BatchTask(evaluator, columns, out, from, middle), new BatchTask(evaluator, columns, out, middle, to));
+  }
+
+  static void evaluate(BatchEvaluator evaluator, double[][] columns, double[] out, int from, int to) {
+    Block block = new Block();
+    for (int offset = from; offset < to; offset += Block.SIZE) {
+      block.setLength(Math.min(Block.SIZE, to - offset));
+      evaluator.evaluate(columns, offset, block);
+      System.arraycopy(block.register(0), 0, out, offset, block.getLength());
+    }
+  }
+}
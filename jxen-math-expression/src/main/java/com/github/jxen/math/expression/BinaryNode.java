@@ -1,23 +1,50 @@
 package com.github.jxen.math.expression;
 
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BinaryOperator;
 
 final class BinaryNode extends AbstractNode {
 
   private final MathOperator operator;
-  private AbstractNode leftNode;
-  private AbstractNode rightNode;
+  private final AbstractNode leftNode;
+  private final AbstractNode rightNode;
+  private final Set<String> variables;
+  private final boolean pure;
+  private final int depth;
+  private final long size;
+  private final int hash;
 
-  BinaryNode(MathOperator operator) {
+  BinaryNode(MathOperator operator, AbstractNode left, AbstractNode right) {
     super(operator.getSymbol());
     this.operator = operator;
+    this.leftNode = left;
+    this.rightNode = right;
+    this.variables = merge(left.getVariables(), right.getVariables());
+    this.pure = left.isPure() && right.isPure();
+    this.depth = depth(leftNode, rightNode);
+    this.size = leftNode.getSize() + rightNode.getSize() + 1;
+    this.hash = hash(operator, leftNode, rightNode);
   }
 
-  BinaryNode(Token token, MathOperator operator) {
+  BinaryNode(Token token, MathOperator operator, AbstractNode left, AbstractNode right) {
     super(token);
     this.operator = operator;
+    if (right == null) {
+      throw new ExpressionException("Missing right operand", token.getPosition(), getName().length());
+    }
+    if (left == null && !operator.isEmptyLeftOperandAllowed()) {
+      throw new ExpressionException("Missing left operand", token.getPosition(), getName().length());
+    }
+    this.leftNode = left == null ? ConstantNode.ZERO : left;
+    this.rightNode = right;
+    this.variables = merge(leftNode.getVariables(), rightNode.getVariables());
+    this.pure = leftNode.isPure() && rightNode.isPure();
+    this.depth = depth(leftNode, rightNode);
+    this.size = leftNode.getSize() + rightNode.getSize() + 1;
+    this.hash = hash(operator, leftNode, rightNode);
   }
 
   @Override
@@ -25,28 +52,136 @@ final class BinaryNode extends AbstractNode {
     return String.format("(%s%s%s)", leftNode.toString(), getName(), rightNode.toString());
   }
 
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null) {
+      return false;
+    }
+    if (getClass() != obj.getClass()) {
+      return false;
+    }
+    BinaryNode other = (BinaryNode) obj;
+    return hash == other.hash && operator == other.operator && leftNode.equals(other.leftNode)
+        && rightNode.equals(other.rightNode);
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
   @Override
   double evaluate(Map<String, ? extends Number> arg) {
     return operator.evaluate(leftNode.evaluate(arg), rightNode.evaluate(arg));
   }
 
   @Override
-  AbstractNode simplify() {
-    if (leftNode.getVariables().isEmpty() && rightNode.getVariables().isEmpty()) {
-      return new ConstantNode(evaluate(null));
+  <T extends Number & Comparable<T>> T evaluate(Map<String, ? extends Number> arg, Arithmetic<T> arithmetic) {
+    return arithmetic.apply(operator, leftNode.evaluate(arg, arithmetic), rightNode.evaluate(arg, arithmetic));
+  }
+
+  @Override
+  Interval evaluateInterval(Map<String, Interval> box) {
+    BinaryOperator<Interval> rule = Intervals.getRule(operator);
+    if (rule == null) {
+      throw new ExpressionException("Unsupported Interval", getToken().getPosition(), getName().length());
     }
-    leftNode = leftNode.simplify();
-    rightNode = rightNode.simplify();
-    SimplifyRule simplifier = Simplifiers.getSimplifier(operator);
-    if (simplifier != null) {
-      return simplifier.simplify(this);
+    Interval left = leftNode.evaluateInterval(box);
+    Interval right = rightNode.evaluateInterval(box);
+    return left.isEmpty() || right.isEmpty() ? Interval.EMPTY : rule.apply(left, right);
+  }
+
+  @Override
+  Evaluator compile(Bindings bindings) {
+    if (isConstant()) {
+      double constant = evaluate(null);
+      return args -> constant;
+    }
+    return Operators.compile(operator, bindings.compile(leftNode), bindings.compile(rightNode));
+  }
+
+  @Override
+  BatchEvaluator compileBatch(Bindings bindings, int register) {
+    if (isConstant()) {
+      return new ConstantNode(evaluate(null)).compileBatch(bindings, register);
+    }
+    BatchEvaluator left = bindings.compileBatch(leftNode, register);
+    if (rightNode.isConstant()) {
+      double constant = rightNode.evaluate(null);
+      return (columns, offset, block) -> {
+        left.evaluate(columns, offset, block);
+        Operators.apply(operator, block.register(register), constant, block.getLength());
+      };
+    }
+    BatchEvaluator right = bindings.compileBatch(rightNode, register + 1);
+    return (columns, offset, block) -> {
+      left.evaluate(columns, offset, block);
+      right.evaluate(columns, offset, block);
+      Operators.apply(operator, block.register(register), block.register(register + 1), block.getLength());
+    };
+  }
+
+  @Override
+  double forward(double[] args, double[] values, int[] operands) {
+    return operator.evaluate(values[operands[0]], values[operands[1]]);
+  }
+
+  @Override
+  double tangent(int index, double[] values, int[] operands, double[] tangents, double[] direction) {
+    checkDifferentiable();
+    double left = values[operands[0]];
+    double right = values[operands[1]];
+    double result = 0;
+    if (tangents[operands[0]] != 0) {
+      double partial = Operators.leftPartial(operator, left, right, values[index]);
+      if (partial != 0) {
+        result += tangents[operands[0]] * partial;
+      }
+    }
+    if (tangents[operands[1]] != 0) {
+      double partial = Operators.rightPartial(operator, left, right, values[index]);
+      if (partial != 0) {
+        result += tangents[operands[1]] * partial;
+      }
+    }
+    return result;
+  }
+
+  @Override
+  void backward(int index, double[] values, int[] operands, double[] adjoints, double[] gradient) {
+    checkDifferentiable();
+    double left = values[operands[0]];
+    double right = values[operands[1]];
+    double adjoint = adjoints[index];
+    if (adjoint == 0) {
+      return;
+    }
+    double leftPartial = Operators.leftPartial(operator, left, right, values[index]);
+    if (leftPartial != 0) {
+      adjoints[operands[0]] += adjoint * leftPartial;
+    }
+    double rightPartial = Operators.rightPartial(operator, left, right, values[index]);
+    if (rightPartial != 0) {
+      adjoints[operands[1]] += adjoint * rightPartial;
+    }
+  }
+
+  @Override
+  AbstractNode simplify(Map<AbstractNode, AbstractNode> simplified) {
+    AbstractNode result = simplified.get(this);
+    if (result == null) {
+      result = simplifyNode(simplified);
+      simplified.put(this, result);
     }
-    return this;
+    return result;
   }
 
   @Override
   AbstractNode derivative(String arg) {
-    if (!this.getVariables().contains(arg)) {
+    if (!variables.contains(arg)) {
       return ConstantNode.ZERO;
     }
     DerivativeRule<BinaryNode> rule = Operators.getRule(this.operator);
@@ -57,30 +192,21 @@ final class BinaryNode extends AbstractNode {
   }
 
   @Override
-  void setChildren(AbstractNode left, AbstractNode right) {
-    if (right == null) {
-      throw new ExpressionException("Missing right operand", getToken().getPosition(), getName().length());
-    }
-    leftNode = left;
-    rightNode = right;
-    if (left == null) {
-      if (!operator.isEmptyLeftOperandAllowed()) {
-        throw new ExpressionException("Missing left operand", getToken().getPosition(), getName().length());
-      }
-      leftNode = ConstantNode.ZERO;
-    }
+  Set<String> getVariables() {
+    return variables;
   }
 
   @Override
-  Set<String> getVariables() {
-    Set<String> dependencies = new HashSet<>();
-    dependencies.addAll(leftNode.getVariables());
-    dependencies.addAll(rightNode.getVariables());
-    return dependencies;
+  List<AbstractNode> getChildren() {
+    return Arrays.asList(leftNode, rightNode);
   }
 
-  int getPriority() {
-    return operator.getPriority();
+  @Override
+  AbstractNode intern(Map<List<Object>, AbstractNode> nodes) {
+    AbstractNode left = leftNode.intern(nodes);
+    AbstractNode right = rightNode.intern(nodes);
+    return nodes.computeIfAbsent(Arrays.asList(operator, left, right),
+        k -> left == leftNode && right == rightNode ? this : new BinaryNode(getToken(), operator, left, right));
   }
 
   AbstractNode getLeftNode() {
@@ -90,4 +216,54 @@ final class BinaryNode extends AbstractNode {
   AbstractNode getRightNode() {
     return rightNode;
   }
+
+  @Override
+  boolean isPure() {
+    return pure;
+  }
+
+  @Override
+  int getDepth() {
+    return depth;
+  }
+
+  @Override
+  long getSize() {
+    return size;
+  }
+
+  MathOperator getOperator() {
+    return operator;
+  }
+
+  private AbstractNode simplifyNode(Map<AbstractNode, AbstractNode> simplified) {
+    if (isConstant()) {
+      return ConstantNode.of(evaluate(null));
+    }
+    AbstractNode left = leftNode.simplify(simplified);
+    AbstractNode right = rightNode.simplify(simplified);
+    BinaryNode node = left == leftNode && right == rightNode ? this : new BinaryNode(getToken(), operator, left, right);
+    SimplifyRule simplifier = Simplifiers.getSimplifier(operator);
+    if (simplifier == null) {
+      return node;
+    }
+    AbstractNode result = simplifier.simplify(node);
+    return result.equals(node) ? node : result;
+  }
+
+  private void checkDifferentiable() {
+    if (!Operators.isDifferentiable(operator)) {
+      throw new ExpressionException("Unsupported Derivative", getToken().getPosition(), getName().length());
+    }
+  }
+
+  private static int depth(AbstractNode left, AbstractNode right) {
+    return Math.max(left.getDepth(), right.getDepth()) + 1;
+  }
+
+  private static int hash(MathOperator operator, AbstractNode left, AbstractNode right) {
+    final int prime = 31;
+    int result = prime * operator.getSymbol().hashCode() + left.hashCode();
+    return prime * result + right.hashCode();
+  }
 }
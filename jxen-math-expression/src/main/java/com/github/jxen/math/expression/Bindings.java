@@ -0,0 +1,128 @@
+package com.github.jxen.math.expression;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+final class Bindings {
+
+  private final Map<String, Integer> variables;
+  private final Map<AbstractNode, Integer> shared = new IdentityHashMap<>();
+  private final Set<AbstractNode> computed = Collections.newSetFromMap(new IdentityHashMap<>());
+  private final Map<AbstractNode, Evaluator> memos = new IdentityHashMap<>();
+  private final Set<String> slow;
+  private boolean memoizing;
+  private Profiler profiler;
+
+  Bindings(Map<String, Integer> variables, AbstractNode... roots) {
+    this(variables, Collections.emptySet(), roots);
+  }
+
+  Bindings(Map<String, Integer> variables, Set<String> slow, AbstractNode... roots) {
+    this.variables = variables;
+    this.slow = slow;
+    Map<AbstractNode, Integer> references = new IdentityHashMap<>();
+    for (AbstractNode root : roots) {
+      count(root, references);
+    }
+    for (Map.Entry<AbstractNode, Integer> entry : references.entrySet()) {
+      AbstractNode node = entry.getKey();
+      if (entry.getValue() > 1 && !node.getChildren().isEmpty() && !node.getVariables().isEmpty()
+          && node.isPure()) {
+        shared.put(node, variables.size() + shared.size());
+      }
+    }
+  }
+
+  static Map<String, Integer> slots(List<String> variables, String... variableOrder) {
+    Map<String, Integer> slots = new HashMap<>();
+    for (String name : variableOrder) {
+      String variable = name.toLowerCase(Locale.getDefault());
+      if (slots.put(variable, variables.size()) != null) {
+        throw new ExpressionException("Duplicate variable: " + name, 0, 0);
+      }
+      variables.add(variable);
+    }
+    return slots;
+  }
+
+  Integer getSlot(String variable) {
+    return variables.get(variable);
+  }
+
+  void setProfiler(Profiler profiler) {
+    this.profiler = profiler;
+  }
+
+  int getFrameSize() {
+    return variables.size() + shared.size();
+  }
+
+  Evaluator compile(AbstractNode node) {
+    if (isMemoized(node)) {
+      return memoize(node);
+    }
+    Integer slot = shared.get(node);
+    if (slot == null) {
+      return instrument(node, node.compile(this));
+    }
+    int index = slot;
+    if (!computed.add(node)) {
+      return args -> args[index];
+    }
+    Evaluator evaluator = instrument(node, node.compile(this));
+    return args -> args[index] = evaluator.evaluate(args);
+  }
+
+  BatchEvaluator compileBatch(AbstractNode node, int register) {
+    Integer slot = shared.get(node);
+    if (slot == null) {
+      return node.compileBatch(this, register);
+    }
+    int index = slot;
+    if (!computed.add(node)) {
+      return (columns, offset, block) -> System.arraycopy(block.shared(index), 0, block.register(register), 0,
+          block.getLength());
+    }
+    BatchEvaluator evaluator = node.compileBatch(this, register);
+    return (columns, offset, block) -> {
+      evaluator.evaluate(columns, offset, block);
+      System.arraycopy(block.register(register), 0, block.shared(index), 0, block.getLength());
+    };
+  }
+
+  private Evaluator instrument(AbstractNode node, Evaluator evaluator) {
+    return profiler == null || node.getChildren().isEmpty() ? evaluator : profiler.instrument(node, evaluator);
+  }
+
+  private boolean isMemoized(AbstractNode node) {
+    return (!memoizing || shared.containsKey(node)) && !node.getChildren().isEmpty()
+        && !node.getVariables().isEmpty() && node.isPure() && slow.containsAll(node.getVariables());
+  }
+
+  private Evaluator memoize(AbstractNode node) {
+    Evaluator memo = memos.get(node);
+    if (memo == null) {
+      boolean outer = memoizing;
+      memoizing = true;
+      Evaluator evaluator = node.compile(this);
+      memoizing = outer;
+      int[] inputs = node.getVariables().stream().mapToInt(variables::get).toArray();
+      memo = new MemoEvaluator(evaluator, inputs);
+      memos.put(node, memo);
+    }
+    return memo;
+  }
+
+  private static void count(AbstractNode node, Map<AbstractNode, Integer> references) {
+    if (references.merge(node, 1, Integer::sum) == 1) {
+      for (AbstractNode child : node.getChildren()) {
+        count(child, references);
+      }
+    }
+  }
+}
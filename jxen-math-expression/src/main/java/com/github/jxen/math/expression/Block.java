@@ -0,0 +1,43 @@
+package com.github.jxen.math.expression;
+
+import java.util.Arrays;
+
+final class Block {
+
+  static final int SIZE = 1024;
+
+  private double[][] registers = new double[0][];
+  private double[][] shared = new double[0][];
+  private int length;
+
+  double[] register(int index) {
+    if (index >= registers.length) {
+      registers = Arrays.copyOf(registers, index + 1);
+    }
+    return get(registers, index);
+  }
+
+  double[] shared(int index) {
+    if (index >= shared.length) {
+      shared = Arrays.copyOf(shared, index + 1);
+    }
+    return get(shared, index);
+  }
+
+  int getLength() {
+    return length;
+  }
+
+  void setLength(int length) {
+    this.length = length;
+  }
+
+  private static double[] get(double[][] arrays, int index) {
+    double[] array = arrays[index];
+    if (array == null) {
+      array = new double[SIZE];
+      arrays[index] = array;
+    }
+    return array;
+  }
+}
@@ -0,0 +1,163 @@
+package com.github.jxen.math.expression;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * {@code CompiledExpression} class represents expression compiled into evaluator with positional arguments. Compiled
+ * expression does not depend on the expression tree it was compiled from and is safe to use from multiple threads.
+ *
+ * @author Denis Murashev
+ * @since Math Expression Parser 1.2
+ */
+public final class CompiledExpression {
+
+  private final List<String> variables;
+  private final Evaluator evaluator;
+  private final BatchEvaluator batchEvaluator;
+  private final int frameSize;
+  private final Tape tape;
+
+  CompiledExpression(List<String> variables, Evaluator evaluator, BatchEvaluator batchEvaluator, int frameSize,
+      Tape tape) {
+    this.variables = Collections.unmodifiableList(variables);
+    this.evaluator = evaluator;
+    this.batchEvaluator = batchEvaluator;
+    this.frameSize = frameSize;
+    this.tape = tape;
+  }
+
+  /**
+   * Evaluates expression. If expression has shared subexpressions, working frame is allocated on each call, use
+   * {@link #evaluateFrame(double[])} in hot loops.
+   *
+   * @param args argument values in order of {@link #getVariables()}
+   * @return evaluated expression
+   */
+  public double applyAsDouble(double... args) {
+    return evaluator.evaluate(frameSize > variables.size() ? Arrays.copyOf(args, frameSize) : args);
+  }
+
+  /**
+   * Evaluates expression in caller-owned frame, so that no working array is allocated per call. Arguments occupy first
+   * positions of the frame, remaining positions are overwritten with values of shared subexpressions.
+   *
+   * @param frame argument values in order of {@link #getVariables()} followed by working space, at least
+   *              {@link #getFrameSize()} long
+   * @return evaluated expression
+   * @since Math Expression Parser 1.2
+   */
+  public double evaluateFrame(double[] frame) {
+    return evaluator.evaluate(frame);
+  }
+
+  /**
+   * Provides minimal length of frame accepted by {@link #evaluateFrame(double[])}.
+   *
+   * @return number of variables plus number of shared subexpressions
+   * @since Math Expression Parser 1.2
+   */
+  public int getFrameSize() {
+    return frameSize;
+  }
+
+  /**
+   * Evaluates expression together with its gradient using reverse mode automatic differentiation. Values of all
+   * nodes are computed in a single forward sweep, then partial derivatives are accumulated in a single backward sweep,
+   * so the whole gradient costs a small constant factor of one evaluation regardless of number of variables.
+   *
+   * @param args     argument values in order of {@link #getVariables()}
+   * @param gradient array to store partial derivatives to, in order of {@link #getVariables()}
+   * @return evaluated expression
+   * @throws ExpressionException if expression contains function or operator without derivative
+   */
+  public double evaluateGradient(double[] args, double[] gradient) {
+    return tape.gradient(args, gradient);
+  }
+
+  /**
+   * Evaluates expression together with its gradient in caller-owned working arrays, so that repeated calls do not
+   * allocate.
+   *
+   * @param args     argument values in order of {@link #getVariables()}
+   * @param gradient array to store partial derivatives to, in order of {@link #getVariables()}
+   * @param values   working array for node values, at least {@link #getTapeSize()} long
+   * @param adjoints working array for node adjoints, at least {@link #getTapeSize()} long
+   * @return evaluated expression
+   * @throws ExpressionException if expression contains function or operator without derivative
+   * @since Math Expression Parser 1.2
+   */
+  public double evaluateGradient(double[] args, double[] gradient, double[] values, double[] adjoints) {
+    return tape.gradient(args, gradient, values, adjoints);
+  }
+
+  /**
+   * Provides minimal length of working arrays accepted by {@link #evaluateGradient(double[], double[], double[],
+   * double[])}.
+   *
+   * @return number of distinct nodes of expression
+   * @since Math Expression Parser 1.2
+   */
+  public int getTapeSize() {
+    return tape.size();
+  }
+
+  /**
+   * Evaluates expression together with its derivative along given direction using forward mode automatic
+   * differentiation. Dual numbers are propagated through the expression in a single pass, no derivative expression is
+   * built.
+   *
+   * @param args      argument values in order of {@link #getVariables()}
+   * @param direction direction vector in order of {@link #getVariables()}
+   * @return value and directional derivative
+   * @throws ExpressionException if expression contains function or operator without derivative
+   */
+  public Dual evaluateDual(double[] args, double[] direction) {
+    return tape.dual(args, direction);
+  }
+
+  /**
+   * Creates stateful evaluator for given argument values, which recomputes only subexpressions depending on an updated
+   * variable.
+   *
+   * @param args initial argument values in order of {@link #getVariables()}
+   * @return incremental evaluator
+   * @since Math Expression Parser 1.2
+   */
+  public IncrementalExpression incremental(double... args) {
+    return new IncrementalExpression(variables, tape, Arrays.copyOf(args, variables.size()));
+  }
+
+  /**
+   * Evaluates expression for every row of given columns. Evaluation is performed operator-at-a-time over blocks of
+   * rows, which keeps working arrays cache-resident.
+   *
+   * @param columns argument columns in order of {@link #getVariables()}, each at least as long as {@code out}
+   * @param out     array to store results to
+   */
+  public void evaluateBatch(double[][] columns, double[] out) {
+    BatchTask.evaluate(batchEvaluator, columns, out, 0, out.length);
+  }
+
+  /**
+   * Evaluates expression for every row of given columns splitting rows between workers of given pool.
+   *
+   * @param columns argument columns in order of {@link #getVariables()}, each at least as long as {@code out}
+   * @param out     array to store results to
+   * @param pool    pool to run evaluation in
+   */
+  public void evaluateBatch(double[][] columns, double[] out, ForkJoinPool pool) {
+    pool.invoke(new BatchTask(batchEvaluator, columns, out, 0, out.length));
+  }
+
+  /**
+   * Provides variables bound to positional arguments.
+   *
+   * @return variable names
+   */
+  public List<String> getVariables() {
+    return variables;
+  }
+}
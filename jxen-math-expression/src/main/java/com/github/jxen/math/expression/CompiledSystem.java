@@ -0,0 +1,82 @@
+package com.github.jxen.math.expression;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@code CompiledSystem} class represents system of expressions compiled into evaluator with positional arguments.
+ * Subexpressions shared between entries are evaluated once per call. Compiled system is safe to use from multiple
+ * threads.
+ *
+ * @author Denis Murashev
+ * @since Math Expression Parser 1.2
+ */
+public final class CompiledSystem {
+
+  private final List<String> variables;
+  private final Evaluator[] evaluators;
+  private final int rows;
+  private final int columns;
+  private final int frameSize;
+
+  CompiledSystem(List<String> variables, Evaluator[] evaluators, int rows, int columns, int frameSize) {
+    this.variables = Collections.unmodifiableList(variables);
+    this.evaluators = evaluators;
+    this.rows = rows;
+    this.columns = columns;
+    this.frameSize = frameSize;
+  }
+
+  /**
+   * Evaluates all entries of system.
+   *
+   * @param args argument values in order of {@link #getVariables()}
+   * @param out  array to store entries to in row-major order
+   */
+  public void evaluate(double[] args, double[] out) {
+    double[] frame = frameSize > variables.size() ? Arrays.copyOf(args, frameSize) : args;
+    for (int i = 0; i < evaluators.length; i++) {
+      out[i] = evaluators[i].evaluate(frame);
+    }
+  }
+
+  /**
+   * Evaluates all entries of system.
+   *
+   * @param args argument values in order of {@link #getVariables()}
+   * @return entries in row-major order
+   */
+  public double[] evaluate(double... args) {
+    double[] out = new double[evaluators.length];
+    evaluate(args, out);
+    return out;
+  }
+
+  /**
+   * Provides number of rows.
+   *
+   * @return number of rows
+   */
+  public int getRows() {
+    return rows;
+  }
+
+  /**
+   * Provides number of columns.
+   *
+   * @return number of columns
+   */
+  public int getColumns() {
+    return columns;
+  }
+
+  /**
+   * Provides variables bound to positional arguments.
+   *
+   * @return variable names
+   */
+  public List<String> getVariables() {
+    return variables;
+  }
+}
@@ -1,6 +1,8 @@
 package com.github.jxen.math.expression;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -16,6 +18,22 @@ final class ConstantNode extends ValueNode {
 
   private final Number value;
 
+  static ConstantNode of(double value) {
+    if (value == 0) {
+      return ZERO;
+    }
+    if (value == 1) {
+      return ONE;
+    }
+    if (value == -1) {
+      return MINUS_ONE;
+    }
+    if (value == (int) value) {
+      return new ConstantNode((int) value);
+    }
+    return new ConstantNode(value);
+  }
+
   ConstantNode(Number value) {
     this(String.valueOf(value), value);
   }
@@ -30,11 +48,67 @@ final class ConstantNode extends ValueNode {
     this.value = value;
   }
 
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null) {
+      return false;
+    }
+    if (getClass() != obj.getClass()) {
+      return false;
+    }
+    return Double.compare(getValue(), ((ConstantNode) obj).getValue()) == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    return Double.hashCode(getValue());
+  }
+
   @Override
   double evaluate(Map<String, ? extends Number> arg) {
     return value.doubleValue();
   }
 
+  @Override
+  <T extends Number & Comparable<T>> T evaluate(Map<String, ? extends Number> arg, Arithmetic<T> arithmetic) {
+    return arithmetic.valueOf(value);
+  }
+
+  @Override
+  Interval evaluateInterval(Map<String, Interval> box) {
+    return Interval.of(value.doubleValue());
+  }
+
+  @Override
+  Evaluator compile(Bindings bindings) {
+    double constant = value.doubleValue();
+    return args -> constant;
+  }
+
+  @Override
+  BatchEvaluator compileBatch(Bindings bindings, int register) {
+    double constant = value.doubleValue();
+    return (columns, offset, block) -> Arrays.fill(block.register(register), 0, block.getLength(), constant);
+  }
+
+  @Override
+  double forward(double[] args, double[] values, int[] operands) {
+    return value.doubleValue();
+  }
+
+  @Override
+  double tangent(int index, double[] values, int[] operands, double[] tangents, double[] direction) {
+    return 0;
+  }
+
+  @Override
+  void backward(int index, double[] values, int[] operands, double[] adjoints, double[] gradient) {
+    // Constant does not contribute to gradient
+  }
+
   @Override
   AbstractNode derivative(String arg) {
     return ZERO;
@@ -44,4 +118,13 @@ final class ConstantNode extends ValueNode {
   Set<String> getVariables() {
     return Collections.emptySet();
   }
+
+  double getValue() {
+    return value.doubleValue();
+  }
+
+  @Override
+  AbstractNode intern(Map<List<Object>, AbstractNode> nodes) {
+    return nodes.computeIfAbsent(Collections.singletonList(value.doubleValue()), k -> this);
+  }
 }
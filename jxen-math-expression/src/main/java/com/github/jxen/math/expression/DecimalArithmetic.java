@@ -0,0 +1,81 @@
+package com.github.jxen.math.expression;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+
+final class DecimalArithmetic extends Arithmetic<BigDecimal> {
+
+  private static final BigDecimal TWO = BigDecimal.valueOf(2);
+  private static final int MAX_ITERATIONS = 64;
+
+  private final MathContext context;
+
+  DecimalArithmetic(MathContext context) {
+    this.context = context;
+  }
+
+  @Override
+  BigDecimal valueOf(Number value) {
+    if (value instanceof BigDecimal) {
+      return ((BigDecimal) value).round(context);
+    }
+    if (value instanceof BigInteger) {
+      return new BigDecimal((BigInteger) value, context);
+    }
+    if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+      return new BigDecimal(value.longValue(), context);
+    }
+    return new BigDecimal(Double.toString(value.doubleValue()), context);
+  }
+
+  @Override
+  BigDecimal plus(BigDecimal left, BigDecimal right) {
+    return left.add(right, context);
+  }
+
+  @Override
+  BigDecimal minus(BigDecimal left, BigDecimal right) {
+    return left.subtract(right, context);
+  }
+
+  @Override
+  BigDecimal multiply(BigDecimal left, BigDecimal right) {
+    return left.multiply(right, context);
+  }
+
+  @Override
+  BigDecimal divide(BigDecimal left, BigDecimal right) {
+    return left.divide(right, context);
+  }
+
+  @Override
+  BigDecimal modulo(BigDecimal left, BigDecimal right) {
+    return left.remainder(right, context);
+  }
+
+  @Override
+  BigDecimal power(BigDecimal base, int exponent) {
+    return base.pow(exponent, context);
+  }
+
+  @Override
+  BigDecimal abs(BigDecimal value) {
+    return value.abs(context);
+  }
+
+  @Override
+  BigDecimal sqrt(BigDecimal value) {
+    BigDecimal result = super.sqrt(value);
+    if (result.signum() == 0 || context.getPrecision() == 0) {
+      return result;
+    }
+    MathContext working = new MathContext(context.getPrecision() + 2, context.getRoundingMode());
+    BigDecimal previous = null;
+    for (int i = 0; i < MAX_ITERATIONS && !result.equals(previous); i++) {
+      previous = result;
+      result = result.add(value.divide(result, working), working).divide(TWO, working);
+    }
+    return result.round(context);
+  }
+}
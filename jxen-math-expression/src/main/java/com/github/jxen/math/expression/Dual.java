@@ -0,0 +1,69 @@
+package com.github.jxen.math.expression;
+
+/**
+ * {@code Dual} class represents dual number, i.e. value of expression together with its derivative along some
+ * direction.
+ *
+ * @author Denis Murashev
+ * @since Math Expression Parser 1.2
+ */
+public final class Dual {
+
+  private final double value;
+  private final double derivative;
+
+  /**
+   * Initializes with given values.
+   *
+   * @param value      value
+   * @param derivative derivative
+   */
+  public Dual(double value, double derivative) {
+    this.value = value;
+    this.derivative = derivative;
+  }
+
+  /**
+   * Provides value.
+   *
+   * @return value
+   */
+  public double getValue() {
+    return value;
+  }
+
+  /**
+   * Provides directional derivative.
+   *
+   * @return derivative
+   */
+  public double getDerivative() {
+    return derivative;
+  }
+
+  @Override
+  public String toString() {
+    return value + " + " + derivative + "e";
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null) {
+      return false;
+    }
+    if (getClass() != obj.getClass()) {
+      return false;
+    }
+    Dual other = (Dual) obj;
+    return Double.compare(value, other.value) == 0 && Double.compare(derivative, other.derivative) == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    final int prime = 31;
+    return prime * Double.hashCode(value) + Double.hashCode(derivative);
+  }
+}
@@ -0,0 +1,7 @@
+package com.github.jxen.math.expression;
+
+@FunctionalInterface
+interface Evaluator {
+
+  double evaluate(double[] args);
+}
@@ -1,9 +1,24 @@
 package com.github.jxen.math.expression;
 
+import com.github.jxen.math.rational.BigRational;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 /**
- * {@code Expression} class represents parsed and compiled mathematical expression.
+ * {@code Expression} class represents parsed and compiled mathematical expression. Expression is immutable, so it can
+ * be shared between threads.
  *
  * @author Denis Murashev
  * @since Math Expression Parser 0.1
@@ -27,7 +42,181 @@ public final class Expression {
   }
 
   /**
-   * Simplifies expression.
+   * Evaluates expression in decimal arithmetic. Arithmetic operators, integral powers, square root and functions
+   * {@code abs}, {@code sign}, {@code min}, {@code max}, {@code sum}, {@code clamp}, {@code if} and {@code pow} are
+   * evaluated with given precision, other functions fall back to {@code double} precision. Function {@code if}
+   * evaluates only the chosen branch.
+   *
+   * @param arg     map of arguments
+   * @param context precision and rounding mode
+   * @return evaluated expression
+   * @throws ArithmeticException if some value is undefined or not representable with given context
+   * @since Math Expression Parser 1.2
+   */
+  public BigDecimal evaluate(Map<String, ? extends Number> arg, MathContext context) {
+    return root.evaluate(arg, new DecimalArithmetic(context));
+  }
+
+  /**
+   * Evaluates expression in exact rational arithmetic. Arithmetic operators, integral powers and functions
+   * {@code abs}, {@code sign}, {@code min}, {@code max}, {@code sum}, {@code clamp}, {@code if} and {@code pow} are
+   * evaluated exactly, irrational functions fall back to {@code double} precision and their results are converted to
+   * fractions. Function {@code if} evaluates only the chosen branch.
+   *
+   * @param arg map of arguments
+   * @return evaluated expression
+   * @throws ArithmeticException if some value is undefined
+   * @since Math Expression Parser 1.2
+   */
+  public BigRational evaluateRational(Map<String, ? extends Number> arg) {
+    return root.evaluate(arg, AwareArithmetic.RATIONAL);
+  }
+
+  /**
+   * Evaluates expression over ranges of variables. Operators and functions are evaluated with interval arithmetic
+   * rounded outwards, so resulting interval contains every value of expression over given box of arguments, though it
+   * may overestimate the range when a variable occurs several times.
+   *
+   * @param box map of variable ranges
+   * @return range of expression, empty if expression is undefined over the whole box
+   * @throws ExpressionException if some variable is missing or some function has no interval implementation
+   * @since Math Expression Parser 1.2
+   */
+  public Interval evaluateInterval(Map<String, Interval> box) {
+    return root.evaluateInterval(box);
+  }
+
+  /**
+   * Compiles expression into evaluator with positional arguments. Variables are bound to positions in their natural
+   * order.
+   *
+   * @return compiled expression
+   */
+  public CompiledExpression compile() {
+    List<String> variables = new ArrayList<>(root.getVariables());
+    Collections.sort(variables);
+    return bind(variables.toArray(new String[0]));
+  }
+
+  /**
+   * Binds variables to positional arguments in given order.
+   *
+   * @param variableOrder variable names, position in array defines argument position
+   * @return compiled expression
+   * @throws ExpressionException if some variable of expression is not bound or bound twice
+   */
+  public CompiledExpression bind(String... variableOrder) {
+    List<String> variables = new ArrayList<>(variableOrder.length);
+    Map<String, Integer> slots = Bindings.slots(variables, variableOrder);
+    Bindings bindings = new Bindings(slots, root);
+    Evaluator evaluator = bindings.compile(root);
+    BatchEvaluator batchEvaluator = new Bindings(slots, root).compileBatch(root, 0);
+    return new CompiledExpression(variables, evaluator, batchEvaluator, bindings.getFrameSize(),
+        new Tape(root, bindings));
+  }
+
+  /**
+   * Binds variables to positional arguments in given order and caches subexpressions depending only on given slow
+   * variables between calls.
+   *
+   * @param slowVariables variables which change rarely
+   * @param variableOrder variable names, position in array defines argument position
+   * @return memoized expression
+   * @throws ExpressionException if some variable of expression is not bound or bound twice
+   * @since Math Expression Parser 1.2
+   */
+  public MemoizedExpression memoize(Collection<String> slowVariables, String... variableOrder) {
+    List<String> variables = new ArrayList<>(variableOrder.length);
+    Map<String, Integer> slots = Bindings.slots(variables, variableOrder);
+    Set<String> slow = new HashSet<>();
+    for (String name : slowVariables) {
+      slow.add(name.toLowerCase(Locale.getDefault()));
+    }
+    Bindings bindings = new Bindings(slots, slow, root);
+    Evaluator evaluator = bindings.compile(root);
+    return new MemoizedExpression(variables, evaluator, bindings.getFrameSize());
+  }
+
+  /**
+   * Binds variables to positional arguments in given order and instruments every operator and function to count its
+   * evaluations and time spent in it. Expressions compiled other ways carry no instrumentation.
+   *
+   * @param variableOrder variable names, position in array defines argument position
+   * @return profiled expression
+   * @throws ExpressionException if some variable of expression is not bound or bound twice
+   * @since Math Expression Parser 1.2
+   */
+  public ProfiledExpression profile(String... variableOrder) {
+    List<String> variables = new ArrayList<>(variableOrder.length);
+    Bindings bindings = new Bindings(Bindings.slots(variables, variableOrder), root);
+    Profiler profiler = new Profiler();
+    bindings.setProfiler(profiler);
+    Evaluator evaluator = bindings.compile(root);
+    return new ProfiledExpression(variables, evaluator, bindings.getFrameSize(), profiler);
+  }
+
+  /**
+   * Writes expression in compact binary form. Subexpressions shared within expression, for instance after
+   * {@link #optimize()}, are written once. Several expressions can be written to the same stream one after another.
+   *
+   * @param out output to write to
+   * @throws IOException if an I/O error occurs
+   * @since Math Expression Parser 1.2
+   */
+  public void writeTo(DataOutput out) throws IOException {
+    ExpressionCodec.write(root, out);
+  }
+
+  /**
+   * Reads expression written by {@link #writeTo(DataOutput)}. Functions and operators are resolved in default
+   * registry.
+   *
+   * @param in input to read from
+   * @return expression
+   * @throws IOException         if an I/O error occurs or data is corrupted
+   * @throws ExpressionException if some function or operator is unknown
+   * @since Math Expression Parser 1.2
+   */
+  public static Expression readFrom(DataInput in) throws IOException {
+    return readFrom(in, FunctionRegistry.getDefault());
+  }
+
+  /**
+   * Reads expression written by {@link #writeTo(DataOutput)}. No tokenizing or parsing is performed.
+   *
+   * @param in       input to read from
+   * @param registry registry to resolve functions and operators in
+   * @return expression
+   * @throws IOException         if an I/O error occurs or data is corrupted
+   * @throws ExpressionException if some function or operator is unknown
+   * @since Math Expression Parser 1.2
+   */
+  public static Expression readFrom(DataInput in, FunctionRegistry registry) throws IOException {
+    return new Expression(ExpressionCodec.read(in, registry));
+  }
+
+  /**
+   * Evaluates expression for every row of given columns.
+   *
+   * @param columns argument columns in natural order of variables, each at least as long as {@code out}
+   * @param out     array to store results to
+   * @see CompiledExpression#evaluateBatch(double[][], double[])
+   */
+  public void evaluateBatch(double[][] columns, double[] out) {
+    compile().evaluateBatch(columns, out);
+  }
+
+  /**
+   * Provides variables used in expression.
+   *
+   * @return variable names
+   */
+  public Set<String> getVariables() {
+    return Collections.unmodifiableSet(root.getVariables());
+  }
+
+  /**
+   * Simplifies expression. Unchanged parts of expression are shared with the result.
    *
    * @return simplified expression
    */
@@ -36,7 +225,21 @@ public final class Expression {
   }
 
   /**
-   * Calculates derivative.
+   * Optimizes expression. Expression is simplified and equal subexpressions are merged, so compiled expression
+   * evaluates each of them only once.
+   *
+   * @return optimized expression
+   * @since Math Expression Parser 1.2
+   */
+  public Expression optimize() {
+    return new Expression(root.simplify().intern(new HashMap<>()));
+  }
+
+  /**
+   * Calculates derivative. Derivatives of built-in elementary functions are expanded symbolically, while derivatives
+   * of custom functions and of functions of several arguments are calls of derivative functions, which are printed as
+   * {@code cube'(x)} or {@code max'(1,x,y)}, first argument of the latter being index of differentiated argument.
+   * Such text cannot be parsed back by {@link Parser}, use {@link #writeTo(DataOutput)} to store derivatives.
    *
    * @param arg argument
    * @return derivative
@@ -45,6 +248,78 @@ public final class Expression {
     return new Expression(root.derivative(arg).simplify());
   }
 
+  /**
+   * Calculates gradient. Derivatives share common subexpressions.
+   *
+   * @param variables variables to differentiate by
+   * @return column of partial derivatives in order of given variables
+   * @since Math Expression Parser 1.2
+   */
+  public ExpressionSystem gradient(String... variables) {
+    return ExpressionSystem.of(this).jacobian(variables).transpose();
+  }
+
+  /**
+   * Calculates Hessian matrix. Second derivatives share common subexpressions with each other and symmetric entries
+   * are calculated only once.
+   *
+   * @param variables variables to differentiate by
+   * @return square matrix of second partial derivatives in order of given variables
+   * @since Math Expression Parser 1.2
+   */
+  public ExpressionSystem hessian(String... variables) {
+    return gradient(variables).derivatives(true, variables);
+  }
+
+  /**
+   * Provides depth of expression tree.
+   *
+   * @return expression depth
+   * @since Math Expression Parser 1.2
+   */
+  public int getDepth() {
+    return root.getDepth();
+  }
+
+  /**
+   * Provides number of nodes of expression tree. Shared subexpressions are counted once per occurrence.
+   *
+   * @return number of nodes
+   * @since Math Expression Parser 1.2
+   */
+  public long getSize() {
+    return root.getSize();
+  }
+
+  AbstractNode getRoot() {
+    return root;
+  }
+
+  /**
+   * Checks if other expression has the same structure.
+   *
+   * @param obj other object
+   * @return {@code true} if expressions are structurally equal
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null) {
+      return false;
+    }
+    if (getClass() != obj.getClass()) {
+      return false;
+    }
+    return root.equals(((Expression) obj).root);
+  }
+
+  @Override
+  public int hashCode() {
+    return root.hashCode();
+  }
+
   @Override
   public String toString() {
     return root.toString();
@@ -0,0 +1,168 @@
+package com.github.jxen.math.expression;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * {@code ExpressionCache} class represents bounded cache of compiled expressions. Least recently used expressions are
+ * evicted when cache is full. Cache is thread-safe and can be shared between several {@link Parser} instances. Lookups
+ * do not take locks, only eviction after a miss is serialized and scans cached entries, so cache is intended for up to
+ * several thousands of expressions. Registering function or operator in {@link FunctionRegistry} makes expressions
+ * cached for that registry stale, they are compiled again on next request and old entries are eventually evicted.
+ * Expressions are keyed by lower cased source text as is, without normalizing whitespace, because positions recorded in
+ * expression tree refer to that text, so {@code x+1} and {@code x + 1} are cached separately.
+ *
+ * @author Denis Murashev
+ * @since Math Expression Parser 1.2
+ */
+public final class ExpressionCache {
+
+  private final int maximumSize;
+  private final ConcurrentMap<Key, Entry> expressions = new ConcurrentHashMap<>();
+  private final AtomicLong clock = new AtomicLong();
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder evictionCount = new LongAdder();
+
+  /**
+   * Initializes with given value.
+   *
+   * @param maximumSize maximum number of cached expressions
+   */
+  public ExpressionCache(int maximumSize) {
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("Cache size must be positive: " + maximumSize);
+    }
+    this.maximumSize = maximumSize;
+  }
+
+  /**
+   * Provides number of cache hits.
+   *
+   * @return number of cache hits
+   */
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  /**
+   * Provides number of cache misses.
+   *
+   * @return number of cache misses
+   */
+  public long getMissCount() {
+    return missCount.sum();
+  }
+
+  /**
+   * Provides number of evicted expressions.
+   *
+   * @return number of evicted expressions
+   */
+  public long getEvictionCount() {
+    return evictionCount.sum();
+  }
+
+  /**
+   * Provides number of cached expressions.
+   *
+   * @return number of cached expressions
+   */
+  public int size() {
+    return expressions.size();
+  }
+
+  /**
+   * Removes all cached expressions.
+   */
+  public void clear() {
+    expressions.clear();
+  }
+
+  Expression get(FunctionRegistry registry, String lowerCaseSource, Set<String> variables,
+      Supplier<Expression> compiler) {
+    Key key = new Key(registry, lowerCaseSource, variables);
+    Entry entry = expressions.get(key);
+    if (entry != null) {
+      entry.access = clock.incrementAndGet();
+      hitCount.increment();
+      return entry.expression;
+    }
+    missCount.increment();
+    Expression expression = compiler.get();
+    expressions.put(key, new Entry(expression, clock.incrementAndGet()));
+    if (expressions.size() > maximumSize) {
+      evict();
+    }
+    return expression;
+  }
+
+  private synchronized void evict() {
+    while (expressions.size() > maximumSize) {
+      Map.Entry<Key, Entry> eldest = null;
+      for (Map.Entry<Key, Entry> candidate : expressions.entrySet()) {
+        if (eldest == null || candidate.getValue().access < eldest.getValue().access) {
+          eldest = candidate;
+        }
+      }
+      if (eldest != null && expressions.remove(eldest.getKey(), eldest.getValue())) {
+        evictionCount.increment();
+      }
+    }
+  }
+
+  private static final class Entry {
+
+    private final Expression expression;
+    private volatile long access;
+
+    Entry(Expression expression, long access) {
+      this.expression = expression;
+      this.access = access;
+    }
+  }
+
+  private static final class Key {
+
+    private final FunctionRegistry registry;
+    private final long version;
+    private final String lowerCaseSource;
+    private final Set<String> variables;
+
+    Key(FunctionRegistry registry, String lowerCaseSource, Set<String> variables) {
+      this.registry = registry;
+      this.version = registry.getVersion();
+      this.lowerCaseSource = lowerCaseSource;
+      this.variables = Collections.unmodifiableSet(new TreeSet<>(variables));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null) {
+        return false;
+      }
+      if (getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return registry == key.registry && version == key.version && lowerCaseSource.equals(key.lowerCaseSource)
+          && variables.equals(key.variables);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(System.identityHashCode(registry), version, lowerCaseSource, variables);
+    }
+  }
+}
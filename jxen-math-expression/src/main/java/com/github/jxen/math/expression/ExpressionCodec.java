@@ -0,0 +1,177 @@
+package com.github.jxen.math.expression;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+final class ExpressionCodec {
+
+  private static final int VERSION = 1;
+  private static final int CONSTANT = 0;
+  private static final int VARIABLE = 1;
+  private static final int OPERATOR = 2;
+  private static final int FUNCTION = 3;
+  private static final int PAYLOAD_BITS = 7;
+  private static final int PAYLOAD_MASK = 0x7F;
+  private static final int CONTINUATION = 0x80;
+  private static final int MAX_SHIFT = 28;
+  private static final int MAX_CAPACITY = 1024;
+
+  private ExpressionCodec() {
+  }
+
+  static void write(AbstractNode root, DataOutput out) throws IOException {
+    Map<AbstractNode, Integer> nodes = new IdentityHashMap<>();
+    List<AbstractNode> order = new ArrayList<>();
+    Map<String, Integer> strings = new LinkedHashMap<>();
+    collect(root, nodes, order, strings);
+    out.writeByte(VERSION);
+    writeInt(out, strings.size());
+    for (String string : strings.keySet()) {
+      out.writeUTF(string);
+    }
+    writeInt(out, order.size());
+    for (AbstractNode node : order) {
+      if (node instanceof ConstantNode) {
+        out.writeByte(CONSTANT);
+        writeInt(out, strings.get(node.getName()));
+        out.writeDouble(((ConstantNode) node).getValue());
+      } else if (node instanceof VariableNode) {
+        out.writeByte(VARIABLE);
+        writeInt(out, strings.get(node.getName()));
+      } else {
+        List<AbstractNode> children = node.getChildren();
+        if (node instanceof BinaryNode) {
+          out.writeByte(OPERATOR);
+        } else {
+          out.writeByte(FUNCTION);
+          writeInt(out, children.size());
+        }
+        writeInt(out, strings.get(name(node)));
+        for (AbstractNode child : children) {
+          writeInt(out, nodes.get(child));
+        }
+      }
+    }
+  }
+
+  static AbstractNode read(DataInput in, FunctionRegistry registry) throws IOException {
+    int version = in.readUnsignedByte();
+    if (version != VERSION) {
+      throw new IOException("Unsupported expression format: " + version);
+    }
+    int stringCount = readInt(in);
+    List<String> strings = new ArrayList<>(Math.min(stringCount, MAX_CAPACITY));
+    for (int i = 0; i < stringCount; i++) {
+      strings.add(in.readUTF());
+    }
+    int nodeCount = readInt(in);
+    if (nodeCount == 0) {
+      throw new IOException("Empty expression");
+    }
+    List<AbstractNode> nodes = new ArrayList<>(Math.min(nodeCount, MAX_CAPACITY));
+    for (int i = 0; i < nodeCount; i++) {
+      int tag = in.readUnsignedByte();
+      if (tag == CONSTANT) {
+        nodes.add(new ConstantNode(string(strings, in), in.readDouble()));
+      } else if (tag == VARIABLE) {
+        nodes.add(new VariableNode(string(strings, in)));
+      } else if (tag == OPERATOR) {
+        String symbol = string(strings, in);
+        MathOperator operator = registry.getOperator(symbol);
+        if (operator == null) {
+          throw new ExpressionException("Unknown operator: " + symbol, 0, 0);
+        }
+        nodes.add(new BinaryNode(operator, node(nodes, in), node(nodes, in)));
+      } else if (tag == FUNCTION) {
+        int count = readInt(in);
+        String name = string(strings, in);
+        List<AbstractNode> arguments = new ArrayList<>(Math.min(count, MAX_CAPACITY));
+        for (int j = 0; j < count; j++) {
+          arguments.add(node(nodes, in));
+        }
+        nodes.add(new FunctionNode(function(registry, name), arguments));
+      } else {
+        throw new IOException("Corrupted expression data");
+      }
+    }
+    return nodes.get(nodeCount - 1);
+  }
+
+  private static void collect(AbstractNode node, Map<AbstractNode, Integer> nodes, List<AbstractNode> order,
+      Map<String, Integer> strings) {
+    if (nodes.containsKey(node)) {
+      return;
+    }
+    for (AbstractNode child : node.getChildren()) {
+      collect(child, nodes, order, strings);
+    }
+    strings.putIfAbsent(name(node), strings.size());
+    nodes.put(node, order.size());
+    order.add(node);
+  }
+
+  private static String name(AbstractNode node) {
+    if (node instanceof BinaryNode) {
+      return ((BinaryNode) node).getOperator().getSymbol();
+    }
+    return node instanceof FunctionNode ? ((FunctionNode) node).getFunction().getName() : node.getName();
+  }
+
+  private static MathFunction function(FunctionRegistry registry, String name) {
+    if (name.endsWith("'")) {
+      MathFunction function = function(registry, name.substring(0, name.length() - 1));
+      if (function.getDerivativeFunction() != null) {
+        return function.getDerivativeFunction();
+      }
+    } else if (registry.getFunction(name) != null) {
+      return registry.getFunction(name);
+    }
+    throw new ExpressionException("Unknown function: " + name, 0, 0);
+  }
+
+  private static String string(List<String> strings, DataInput in) throws IOException {
+    int index = readInt(in);
+    if (index >= strings.size()) {
+      throw new IOException("Corrupted expression data");
+    }
+    return strings.get(index);
+  }
+
+  private static AbstractNode node(List<AbstractNode> nodes, DataInput in) throws IOException {
+    int index = readInt(in);
+    if (index >= nodes.size()) {
+      throw new IOException("Corrupted expression data");
+    }
+    return nodes.get(index);
+  }
+
+  private static void writeInt(DataOutput out, int value) throws IOException {
+    int rest = value;
+    while ((rest & ~PAYLOAD_MASK) != 0) {
+      out.writeByte(rest & PAYLOAD_MASK | CONTINUATION);
+      rest >>>= PAYLOAD_BITS;
+    }
+    out.writeByte(rest);
+  }
+
+  private static int readInt(DataInput in) throws IOException {
+    int result = 0;
+    for (int shift = 0; shift <= MAX_SHIFT; shift += PAYLOAD_BITS) {
+      int b = in.readUnsignedByte();
+      result |= (b & PAYLOAD_MASK) << shift;
+      if ((b & CONTINUATION) == 0) {
+        if (result < 0) {
+          throw new IOException("Corrupted expression data");
+        }
+        return result;
+      }
+    }
+    throw new IOException("Corrupted expression data");
+  }
+}
@@ -0,0 +1,160 @@
+package com.github.jxen.math.expression;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * {@code ExpressionSystem} class represents matrix of expressions, e.g. system of equations, gradient, Jacobian or
+ * Hessian. Equal subexpressions of all entries are merged, so derivatives of any order keep memory linear in size of
+ * their distinct subexpressions, and compiled system evaluates each of them only once.
+ *
+ * @author Denis Murashev
+ * @since Math Expression Parser 1.2
+ */
+public final class ExpressionSystem {
+
+  private final AbstractNode[] nodes;
+  private final int rows;
+  private final int columns;
+
+  private ExpressionSystem(AbstractNode[] nodes, int rows, int columns) {
+    this.nodes = nodes;
+    this.rows = rows;
+    this.columns = columns;
+  }
+
+  /**
+   * Creates column of given expressions.
+   *
+   * @param expressions expressions
+   * @return system of expressions
+   */
+  public static ExpressionSystem of(Expression... expressions) {
+    Map<List<Object>, AbstractNode> pool = new HashMap<>();
+    AbstractNode[] nodes = new AbstractNode[expressions.length];
+    for (int i = 0; i < nodes.length; i++) {
+      nodes[i] = expressions[i].getRoot().intern(pool);
+    }
+    return new ExpressionSystem(nodes, nodes.length, 1);
+  }
+
+  /**
+   * Calculates Jacobian matrix. Each entry of this system, taken in row-major order, gives a row of the result.
+   *
+   * @param variables variables to differentiate by
+   * @return matrix of partial derivatives, columns follow order of given variables
+   */
+  public ExpressionSystem jacobian(String... variables) {
+    return derivatives(false, variables);
+  }
+
+  /**
+   * Provides entry of system.
+   *
+   * @param row    row
+   * @param column column
+   * @return expression
+   */
+  public Expression get(int row, int column) {
+    if (row < 0 || row >= rows || column < 0 || column >= columns) {
+      throw new IndexOutOfBoundsException("Entry (" + row + ", " + column + ") is out of " + rows + "x" + columns);
+    }
+    return new Expression(nodes[row * columns + column]);
+  }
+
+  /**
+   * Provides number of rows.
+   *
+   * @return number of rows
+   */
+  public int getRows() {
+    return rows;
+  }
+
+  /**
+   * Provides number of columns.
+   *
+   * @return number of columns
+   */
+  public int getColumns() {
+    return columns;
+  }
+
+  /**
+   * Provides variables used in system.
+   *
+   * @return variable names
+   */
+  public Set<String> getVariables() {
+    Set<String> variables = new TreeSet<>();
+    for (AbstractNode node : nodes) {
+      variables.addAll(node.getVariables());
+    }
+    return Collections.unmodifiableSet(variables);
+  }
+
+  /**
+   * Compiles system into evaluator with positional arguments. Variables are bound to positions in their natural order.
+   *
+   * @return compiled system
+   */
+  public CompiledSystem compile() {
+    return bind(getVariables().toArray(new String[0]));
+  }
+
+  /**
+   * Binds variables to positional arguments in given order.
+   *
+   * @param variableOrder variable names, position in array defines argument position
+   * @return compiled system
+   * @throws ExpressionException if some variable of system is not bound or bound twice
+   */
+  public CompiledSystem bind(String... variableOrder) {
+    List<String> variables = new ArrayList<>(variableOrder.length);
+    Bindings bindings = new Bindings(Bindings.slots(variables, variableOrder), nodes);
+    Evaluator[] evaluators = new Evaluator[nodes.length];
+    for (int i = 0; i < nodes.length; i++) {
+      evaluators[i] = bindings.compile(nodes[i]);
+    }
+    return new CompiledSystem(variables, evaluators, rows, columns, bindings.getFrameSize());
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < rows; i++) {
+      builder.append(i == 0 ? "[" : ", ");
+      builder.append(Arrays.toString(Arrays.copyOfRange(nodes, i * columns, (i + 1) * columns)));
+    }
+    return builder.append(']').toString();
+  }
+
+  ExpressionSystem transpose() {
+    if (rows != 1 && columns != 1) {
+      throw new UnsupportedOperationException("Only vectors can be transposed");
+    }
+    return new ExpressionSystem(nodes, columns, rows);
+  }
+
+  ExpressionSystem derivatives(boolean symmetric, String... variables) {
+    Map<List<Object>, AbstractNode> pool = new HashMap<>();
+    AbstractNode[] result = new AbstractNode[nodes.length * variables.length];
+    for (int j = 0; j < variables.length; j++) {
+      for (int i = 0; i < nodes.length; i++) {
+        int index = i * variables.length + j;
+        if (symmetric && i < j) {
+          result[index] = result[j * variables.length + i];
+        } else {
+          result[index] = nodes[i].derivative(variables[j]).simplify().intern(pool);
+        }
+      }
+    }
+    return new ExpressionSystem(result, nodes.length, variables.length);
+  }
+}
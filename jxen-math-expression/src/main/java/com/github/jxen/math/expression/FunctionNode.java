@@ -1,73 +1,408 @@
 package com.github.jxen.math.expression;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 final class FunctionNode extends AbstractNode {
 
   private final MathFunction function;
-  // TODO Remove this initialization!!!
-  private AbstractNode argument = ConstantNode.ZERO;
+  private final List<AbstractNode> arguments;
+  private final Set<String> variables;
+  private final boolean pure;
+  private final int depth;
+  private final long size;
+  private final int hash;
 
-  FunctionNode(MathFunction function) {
-    super(function.getName());
-    this.function = function;
+  FunctionNode(MathFunction function, AbstractNode argument) {
+    this(function, Collections.singletonList(argument));
+  }
+
+  FunctionNode(MathFunction function, List<AbstractNode> arguments) {
+    this(new Token(function.getName(), -1), function, arguments);
   }
 
-  FunctionNode(Token token, MathFunction function) {
+  FunctionNode(Token token, MathFunction function, List<AbstractNode> arguments) {
     super(token);
     this.function = function;
+    if (arguments.size() < function.getMinArity() || arguments.size() > function.getMaxArity()) {
+      throw new ExpressionException("Wrong number of arguments", token.getPosition(), getName().length());
+    }
+    this.arguments = Collections.unmodifiableList(arguments);
+    Set<String> names = arguments.get(0).getVariables();
+    boolean pureArguments = function.isPure();
+    int maxDepth = 0;
+    long total = 1;
+    int code = function.getName().hashCode();
+    final int prime = 31;
+    for (AbstractNode argument : arguments) {
+      names = merge(names, argument.getVariables());
+      pureArguments &= argument.isPure();
+      maxDepth = Math.max(maxDepth, argument.getDepth());
+      total += argument.getSize();
+      code = prime * code + argument.hashCode();
+    }
+    this.variables = names;
+    this.pure = pureArguments;
+    this.depth = maxDepth + 1;
+    this.size = total;
+    this.hash = code;
   }
 
   @Override
   public String toString() {
-    return getName() + '(' + argument + ')';
+    StringBuilder builder = new StringBuilder(getName()).append('(');
+    for (int i = 0; i < arguments.size(); i++) {
+      builder.append(i == 0 ? "" : ",").append(arguments.get(i));
+    }
+    return builder.append(')').toString();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null) {
+      return false;
+    }
+    if (getClass() != obj.getClass()) {
+      return false;
+    }
+    FunctionNode other = (FunctionNode) obj;
+    return function.isPure() && hash == other.hash && function == other.function
+        && arguments.equals(other.arguments);
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
   }
 
   AbstractNode getNode() {
-    return argument;
+    return arguments.get(0);
+  }
+
+  List<AbstractNode> getArguments() {
+    return arguments;
+  }
+
+  MathFunction getFunction() {
+    return function;
   }
 
   @Override
   double evaluate(Map<String, ? extends Number> arg) {
-    return function.value(argument.evaluate(arg));
+    if (arguments.size() == 1) {
+      return function.value(arguments.get(0).evaluate(arg));
+    }
+    double[] values = new double[arguments.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = arguments.get(i).evaluate(arg);
+    }
+    return function.value(values);
+  }
+
+  @Override
+  <T extends Number & Comparable<T>> T evaluate(Map<String, ? extends Number> arg, Arithmetic<T> arithmetic) {
+    if (function == Functions.IF) {
+      boolean condition = arithmetic.isTrue(arguments.get(0).evaluate(arg, arithmetic));
+      return arguments.get(condition ? 1 : 2).evaluate(arg, arithmetic);
+    }
+    List<T> values = new ArrayList<>(arguments.size());
+    for (AbstractNode argument : arguments) {
+      values.add(argument.evaluate(arg, arithmetic));
+    }
+    return arithmetic.apply(function, values);
+  }
+
+  @Override
+  Interval evaluateInterval(Map<String, Interval> box) {
+    UnaryOperator<Interval> rule = Intervals.getRule(function);
+    Function<Interval[], Interval> naryRule = Intervals.getNaryRule(function);
+    if (rule == null && naryRule == null) {
+      throw new ExpressionException("Unsupported Interval", getToken().getPosition(), getName().length());
+    }
+    Interval[] intervals = new Interval[arguments.size()];
+    for (int i = 0; i < intervals.length; i++) {
+      intervals[i] = arguments.get(i).evaluateInterval(box);
+      if (intervals[i].isEmpty()) {
+        return Interval.EMPTY;
+      }
+    }
+    return rule != null ? rule.apply(intervals[0]) : naryRule.apply(intervals);
+  }
+
+  @Override
+  Evaluator compile(Bindings bindings) {
+    if (isConstant()) {
+      double constant = evaluate(null);
+      return args -> constant;
+    }
+    if (arguments.size() == 1) {
+      Evaluator evaluator = bindings.compile(arguments.get(0));
+      return args -> function.value(evaluator.evaluate(args));
+    }
+    Evaluator[] evaluators = new Evaluator[arguments.size()];
+    for (int i = 0; i < evaluators.length; i++) {
+      evaluators[i] = bindings.compile(arguments.get(i));
+    }
+    if (evaluators.length == 2) {
+      Evaluator first = evaluators[0];
+      Evaluator second = evaluators[1];
+      return args -> function.value(first.evaluate(args), second.evaluate(args));
+    }
+    if (evaluators.length == 3) {
+      Evaluator first = evaluators[0];
+      Evaluator second = evaluators[1];
+      Evaluator third = evaluators[2];
+      return args -> function.value(first.evaluate(args), second.evaluate(args), third.evaluate(args));
+    }
+    return args -> {
+      double[] values = new double[evaluators.length];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = evaluators[i].evaluate(args);
+      }
+      return function.value(values);
+    };
   }
 
   @Override
-  AbstractNode simplify() {
-    if (argument.getVariables().isEmpty()) {
-      return new ConstantNode(evaluate(null));
+  BatchEvaluator compileBatch(Bindings bindings, int register) {
+    if (isConstant()) {
+      return new ConstantNode(evaluate(null)).compileBatch(bindings, register);
+    }
+    if (arguments.size() == 1) {
+      BatchEvaluator evaluator = bindings.compileBatch(arguments.get(0), register);
+      return (columns, offset, block) -> {
+        evaluator.evaluate(columns, offset, block);
+        double[] values = block.register(register);
+        for (int i = 0; i < block.getLength(); i++) {
+          values[i] = function.value(values[i]);
+        }
+      };
+    }
+    BatchEvaluator[] evaluators = new BatchEvaluator[arguments.size()];
+    for (int i = 0; i < evaluators.length; i++) {
+      evaluators[i] = bindings.compileBatch(arguments.get(i), register + i);
+    }
+    if (evaluators.length == 2) {
+      return (columns, offset, block) -> {
+        evaluators[0].evaluate(columns, offset, block);
+        evaluators[1].evaluate(columns, offset, block);
+        double[] first = block.register(register);
+        double[] second = block.register(register + 1);
+        for (int row = 0; row < block.getLength(); row++) {
+          first[row] = function.value(first[row], second[row]);
+        }
+      };
     }
-    argument = argument.simplify();
-    return this;
+    if (evaluators.length == 3) {
+      return (columns, offset, block) -> {
+        evaluators[0].evaluate(columns, offset, block);
+        evaluators[1].evaluate(columns, offset, block);
+        evaluators[2].evaluate(columns, offset, block);
+        double[] first = block.register(register);
+        double[] second = block.register(register + 1);
+        double[] third = block.register(register + 2);
+        for (int row = 0; row < block.getLength(); row++) {
+          first[row] = function.value(first[row], second[row], third[row]);
+        }
+      };
+    }
+    return (columns, offset, block) -> {
+      double[][] registers = new double[evaluators.length][];
+      for (int i = 0; i < evaluators.length; i++) {
+        evaluators[i].evaluate(columns, offset, block);
+        registers[i] = block.register(register + i);
+      }
+      double[] values = new double[evaluators.length];
+      for (int row = 0; row < block.getLength(); row++) {
+        for (int i = 0; i < values.length; i++) {
+          values[i] = registers[i][row];
+        }
+        registers[0][row] = function.value(values);
+      }
+    };
+  }
+
+  @Override
+  double forward(double[] args, double[] values, int[] operands) {
+    if (operands.length == 1) {
+      return function.value(values[operands[0]]);
+    }
+    if (operands.length == 2) {
+      return function.value(values[operands[0]], values[operands[1]]);
+    }
+    if (operands.length == 3) {
+      return function.value(values[operands[0]], values[operands[1]], values[operands[2]]);
+    }
+    return function.value(gather(values, operands));
+  }
+
+  @Override
+  double tangent(int index, double[] values, int[] operands, double[] tangents, double[] direction) {
+    checkDifferentiable();
+    if (operands.length == 1) {
+      return tangents[operands[0]] * function.derivative(values[operands[0]]);
+    }
+    double[] args = gather(values, operands);
+    double result = 0;
+    for (int i = 0; i < operands.length; i++) {
+      if (tangents[operands[i]] != 0) {
+        double partial = function.derivative(args, i);
+        if (partial != 0) {
+          result += tangents[operands[i]] * partial;
+        }
+      }
+    }
+    return result;
+  }
+
+  @Override
+  void backward(int index, double[] values, int[] operands, double[] adjoints, double[] gradient) {
+    checkDifferentiable();
+    double adjoint = adjoints[index];
+    if (adjoint == 0) {
+      return;
+    }
+    if (operands.length == 1) {
+      adjoints[operands[0]] += adjoint * function.derivative(values[operands[0]]);
+      return;
+    }
+    double[] args = gather(values, operands);
+    for (int i = 0; i < operands.length; i++) {
+      double partial = function.derivative(args, i);
+      if (partial != 0) {
+        adjoints[operands[i]] += adjoint * partial;
+      }
+    }
+  }
+
+  @Override
+  AbstractNode simplify(Map<AbstractNode, AbstractNode> simplified) {
+    AbstractNode result = simplified.get(this);
+    if (result == null) {
+      result = simplifyNode(simplified);
+      simplified.put(this, result);
+    }
+    return result;
   }
 
   @Override
   AbstractNode derivative(String arg) {
-    if (!getVariables().contains(arg)) {
+    if (!variables.contains(arg)) {
       return ConstantNode.ZERO;
     }
     DerivativeRule<FunctionNode> rule = Functions.getRule(this.function);
-    if (rule == null) {
+    AbstractNode result;
+    if (rule != null) {
+      result = rule.derivative(this, arg);
+    } else if (function.isDifferentiable()) {
+      result = null;
+      for (int i = 0; i < arguments.size(); i++) {
+        if (arguments.get(i).getVariables().contains(arg)) {
+          AbstractNode term = new BinaryNode(Operators.MULTIPLY, partial(i), arguments.get(i).derivative(arg));
+          result = result == null ? term : new BinaryNode(Operators.PLUS, result, term);
+        }
+      }
+    } else {
       throw new ExpressionException("Unsupported Derivative", getToken().getPosition(), getName().length());
     }
-    return rule.derivative(this, arg);
+    return result;
+  }
+
+  @Override
+  Set<String> getVariables() {
+    return variables;
+  }
+
+  @Override
+  boolean isPure() {
+    return pure;
   }
 
   @Override
-  void setChildren(AbstractNode left, AbstractNode right) {
-    if (Objects.nonNull(left)) {
-      throw new ExpressionException("Unknown function", getToken().getPosition(), getName().length());
+  List<AbstractNode> getChildren() {
+    return arguments;
+  }
+
+  @Override
+  AbstractNode intern(Map<List<Object>, AbstractNode> nodes) {
+    List<Object> key = new ArrayList<>(arguments.size() + 1);
+    key.add(function);
+    boolean changed = false;
+    for (AbstractNode argument : arguments) {
+      AbstractNode interned = argument.intern(nodes);
+      changed |= interned != argument;
+      key.add(interned);
     }
-    if (right == null) {
-      throw new ExpressionException("Missing argument", getToken().getPosition(), getName().length());
+    if (!function.isPure()) {
+      return changed ? create(key) : this;
     }
-    argument = right;
+    boolean copy = changed;
+    return nodes.computeIfAbsent(key, k -> copy ? create(k) : this);
   }
 
   @Override
-  Set<String> getVariables() {
-    return argument.getVariables();
+  int getDepth() {
+    return depth;
+  }
+
+  @Override
+  long getSize() {
+    return size;
+  }
+
+  private FunctionNode create(List<Object> key) {
+    List<AbstractNode> nodes = new ArrayList<>(key.size() - 1);
+    for (Object node : key.subList(1, key.size())) {
+      nodes.add((AbstractNode) node);
+    }
+    return new FunctionNode(getToken(), function, nodes);
+  }
+
+  private AbstractNode partial(int index) {
+    if (function.isUnary()) {
+      return new FunctionNode(function.getDerivativeFunction(), arguments);
+    }
+    List<AbstractNode> nodes = new ArrayList<>(arguments.size() + 1);
+    nodes.add(ConstantNode.of(index));
+    nodes.addAll(arguments);
+    return new FunctionNode(function.getDerivativeFunction(), nodes);
+  }
+
+  private AbstractNode simplifyNode(Map<AbstractNode, AbstractNode> simplified) {
+    if (isConstant()) {
+      return ConstantNode.of(evaluate(null));
+    }
+    List<AbstractNode> nodes = new ArrayList<>(arguments.size());
+    boolean changed = false;
+    for (AbstractNode argument : arguments) {
+      AbstractNode node = argument.simplify(simplified);
+      changed |= node != argument;
+      nodes.add(node);
+    }
+    FunctionNode node = changed ? new FunctionNode(getToken(), function, nodes) : this;
+    AbstractNode result = Simplifiers.simplify(node);
+    return result.equals(node) ? node : result;
+  }
+
+  private void checkDifferentiable() {
+    if (!function.isDifferentiable()) {
+      throw new ExpressionException("Unsupported Derivative", getToken().getPosition(), getName().length());
+    }
+  }
+
+  private static double[] gather(double[] values, int[] operands) {
+    double[] args = new double[operands.length];
+    for (int i = 0; i < args.length; i++) {
+      args[i] = values[operands[i]];
+    }
+    return args;
   }
 }
@@ -0,0 +1,108 @@
+package com.github.jxen.math.expression;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code FunctionRegistry} class holds functions and operators known to parser. Registry is thread-safe and may be
+ * shared between parsers, parsers created without explicit registry use {@link #getDefault() default} one.
+ *
+ * @author Denis Murashev
+ * @since Math Expression Parser 1.2
+ */
+public final class FunctionRegistry {
+
+  private static final FunctionRegistry DEFAULT = new FunctionRegistry();
+
+  private static final String RESERVED = "().,";
+
+  private final Map<String, MathFunction> functions = new ConcurrentHashMap<>();
+  private final Map<String, MathOperator> operators = new ConcurrentHashMap<>();
+  private final AtomicLong version = new AtomicLong();
+
+  /**
+   * Initializes registry with built-in functions and operators.
+   */
+  public FunctionRegistry() {
+    Functions.getFunctions().forEach(this::register);
+    Operators.getOperators().forEach(this::register);
+  }
+
+  /**
+   * Provides registry shared by parsers created without explicit registry.
+   *
+   * @return default registry
+   */
+  public static FunctionRegistry getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Registers function. Function registered earlier with the same name is replaced.
+   *
+   * @param function function
+   * @throws IllegalArgumentException if function name is not a lower case identifier
+   */
+  public void register(MathFunction function) {
+    String name = function.getName();
+    if (name.isEmpty() || !Character.isLetter(name.charAt(0)) || !isIdentifier(name)) {
+      throw new IllegalArgumentException("Illegal function name: " + name);
+    }
+    functions.put(name, function);
+    version.incrementAndGet();
+  }
+
+  /**
+   * Registers operator. Operator registered earlier with the same symbol is replaced.
+   *
+   * @param operator operator
+   * @throws IllegalArgumentException if operator symbol is not a single special character or priority is out of range
+   */
+  public void register(MathOperator operator) {
+    String symbol = operator.getSymbol();
+    if (symbol.length() != 1 || Character.isLetterOrDigit(symbol.charAt(0))
+        || Character.isWhitespace(symbol.charAt(0)) || RESERVED.contains(symbol)) {
+      throw new IllegalArgumentException("Illegal operator symbol: " + symbol);
+    }
+    if (operator.getPriority() < MathOperator.LOW_PRIORITY || operator.getPriority() > MathOperator.HIGH_PRIORITY) {
+      throw new IllegalArgumentException("Illegal operator priority: " + operator.getPriority());
+    }
+    operators.put(symbol, operator);
+    version.incrementAndGet();
+  }
+
+  /**
+   * Looks for function.
+   *
+   * @param name function name
+   * @return function or {@code null} if there is no such function
+   */
+  public MathFunction getFunction(String name) {
+    return functions.get(name);
+  }
+
+  /**
+   * Looks for operator.
+   *
+   * @param symbol operator symbol
+   * @return operator or {@code null} if there is no such operator
+   */
+  public MathOperator getOperator(String symbol) {
+    return operators.get(symbol);
+  }
+
+  long getVersion() {
+    return version.get();
+  }
+
+  private static boolean isIdentifier(String name) {
+    for (int i = 0; i < name.length(); i++) {
+      char c = name.charAt(i);
+      if (!(Character.isLetterOrDigit(c) || c == '_') || Character.isUpperCase(c)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -1,50 +1,84 @@
 package com.github.jxen.math.expression;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 
 final class Functions {
 
-  static final MathFunction SQRT = new MathFunction("sqrt", Math::sqrt);
+  static final MathFunction SQRT = new MathFunction("sqrt", Math::sqrt, x -> 0.5 / Math.sqrt(x));
 
-  static final MathFunction EXP = new MathFunction("exp", Math::exp);
+  static final MathFunction EXP = new MathFunction("exp", Math::exp, Math::exp);
 
-  static final MathFunction LN = new MathFunction("ln", Math::log);
+  static final MathFunction LN = new MathFunction("ln", Math::log, x -> 1 / x);
 
-  static final MathFunction LOG = new MathFunction("log", Math::log10);
+  static final MathFunction LOG = new MathFunction("log", Math::log10, x -> 1 / (x * Math.log(10)));
 
-  static final MathFunction SIGN = new MathFunction("sign", Math::signum);
+  static final MathFunction SIGN = new MathFunction("sign", Math::signum, x -> 0);
 
-  static final MathFunction ABS = new MathFunction("abs", Math::abs);
+  static final MathFunction ABS = new MathFunction("abs", Math::abs, Math::signum);
 
-  static final MathFunction SIN = new MathFunction("sin", Math::sin);
+  static final MathFunction SIN = new MathFunction("sin", Math::sin, Math::cos);
 
-  static final MathFunction COS = new MathFunction("cos", Math::cos);
+  static final MathFunction COS = new MathFunction("cos", Math::cos, x -> -Math.sin(x));
 
-  static final MathFunction TG = new MathFunction("tg", Math::tan);
+  static final MathFunction TG = new MathFunction("tg", Math::tan, x -> 1 / (Math.cos(x) * Math.cos(x)));
 
-  static final MathFunction CTG = new MathFunction("ctg", x -> 1 / Math.tan(x));
+  static final MathFunction CTG = new MathFunction("ctg", x -> 1 / Math.tan(x), x -> -1 / (Math.sin(x) * Math.sin(x)));
 
-  static final MathFunction ASIN = new MathFunction("arcsin", Math::asin);
+  static final MathFunction ASIN = new MathFunction("arcsin", Math::asin, x -> 1 / Math.sqrt(1 - x * x));
 
-  static final MathFunction ACOS = new MathFunction("arccos", Math::acos);
+  static final MathFunction ACOS = new MathFunction("arccos", Math::acos, x -> -1 / Math.sqrt(1 - x * x));
 
-  static final MathFunction ATG = new MathFunction("arctg", Math::atan);
+  static final MathFunction ATG = new MathFunction("arctg", Math::atan, x -> 1 / (1 + x * x));
 
-  static final MathFunction SH = new MathFunction("sh", Math::sinh);
+  static final MathFunction SH = new MathFunction("sh", Math::sinh, Math::cosh);
 
-  static final MathFunction CH = new MathFunction("ch", Math::cosh);
+  static final MathFunction CH = new MathFunction("ch", Math::cosh, Math::sinh);
 
-  static final MathFunction TH = new MathFunction("th", Math::tanh);
+  static final MathFunction TH = new MathFunction("th", Math::tanh, x -> 1 / (Math.cosh(x) * Math.cosh(x)));
+
+  static final MathFunction MIN = new MathFunction("min", 1, Integer.MAX_VALUE, args -> args[extremum(args, -1)],
+      (args, index) -> index == extremum(args, -1) ? 1 : 0, true, Math::min, (a, b, c) -> Math.min(Math.min(a, b), c));
+
+  static final MathFunction MAX = new MathFunction("max", 1, Integer.MAX_VALUE, args -> args[extremum(args, 1)],
+      (args, index) -> index == extremum(args, 1) ? 1 : 0, true, Math::max, (a, b, c) -> Math.max(Math.max(a, b), c));
+
+  static final MathFunction SUM = new MathFunction("sum", 1, Integer.MAX_VALUE, Functions::sum, (args, index) -> 1,
+      true, Double::sum, (a, b, c) -> a + b + c);
+
+  static final MathFunction HYPOT = new MathFunction("hypot", 2, 2, args -> Math.hypot(args[0], args[1]),
+      (args, index) -> args[index] / Math.hypot(args[0], args[1]), true, Math::hypot, null);
+
+  static final MathFunction ATAN2 = new MathFunction("atan2", 2, 2, args -> Math.atan2(args[0], args[1]),
+      (args, index) -> (index == 0 ? args[1] : -args[0]) / (args[0] * args[0] + args[1] * args[1]), true, Math::atan2,
+      null);
+
+  static final MathFunction CLAMP = new MathFunction("clamp", 3, 3,
+      args -> Math.max(args[1], Math.min(args[0], args[2])), (args, index) -> index == clamped(args) ? 1 : 0, true,
+      null, (x, lower, upper) -> Math.max(lower, Math.min(x, upper)));
+
+  static final MathFunction POW = new MathFunction("pow", 2, 2, args -> Math.pow(args[0], args[1]),
+      (args, index) -> index == 0 ? Operators.leftPartial(Operators.POWER, args[0], args[1], Math.pow(args[0], args[1]))
+          : Operators.rightPartial(Operators.POWER, args[0], args[1], Math.pow(args[0], args[1])), true,
+      Math::pow, null);
+
+  static final MathFunction IF = new MathFunction("if", 3, 3, args -> args[0] != 0 ? args[1] : args[2],
+      (args, index) -> index != 0 && (args[0] != 0) == (index == 1) ? 1 : 0, true, null,
+      (condition, first, second) -> condition != 0 ? first : second);
 
   private static final double HALF = 0.5;
 
   private static final Map<MathFunction, FunctionRule> RULES = new HashMap<>();
 
+  private static final Map<MathFunction, DerivativeRule<FunctionNode>> NARY_RULES = new HashMap<>();
+
   private static final ConstantNode LOG10 = new ConstantNode(Math.log(10));
 
-  private final Map<String, MathFunction> functionMap = new HashMap<>();
+  private static final List<MathFunction> FUNCTIONS = Collections.unmodifiableList(Arrays.asList(SQRT, EXP, LN, LOG,
+      SIGN, ABS, SIN, COS, TG, CTG, ASIN, ACOS, ATG, SH, CH, TH, MIN, MAX, SUM, HYPOT, ATAN2, CLAMP, POW, IF));
 
   static {
     RULES.put(SQRT, node -> binaryNode(new ConstantNode(HALF), Operators.DIVIDE, functionNode(SQRT, node.getNode())));
@@ -55,99 +89,97 @@ final class Functions {
     RULES.put(ABS, node -> functionNode(SIGN, node.getNode()));
     RULES.put(SIN, node -> functionNode(COS, node.getNode()));
     RULES.put(COS, node -> binaryNode(ConstantNode.MINUS_ONE, Operators.MULTIPLY, functionNode(SIN, node.getNode())));
-    RULES.put(TG, node -> {
-      FunctionNode left = new FunctionNode(COS);
-      left.setChildren(null, node.getNode());
-      BinaryNode right = new BinaryNode(Operators.POWER);
-      right.setChildren(left, ConstantNode.TWO);
-      BinaryNode result = new BinaryNode(Operators.DIVIDE);
-      result.setChildren(ConstantNode.ONE, right);
-      return result;
-    });
-    RULES.put(CTG, node -> {
-      FunctionNode left = new FunctionNode(SIN);
-      left.setChildren(null, node.getNode());
-      BinaryNode right = new BinaryNode(Operators.POWER);
-      right.setChildren(left, ConstantNode.TWO);
-      BinaryNode result = new BinaryNode(Operators.DIVIDE);
-      result.setChildren(ConstantNode.MINUS_ONE, right);
-      return result;
-    });
+    RULES.put(TG, node -> binaryNode(ConstantNode.ONE, Operators.DIVIDE,
+        binaryNode(functionNode(COS, node.getNode()), Operators.POWER, ConstantNode.TWO)));
+    RULES.put(CTG, node -> binaryNode(ConstantNode.MINUS_ONE, Operators.DIVIDE,
+        binaryNode(functionNode(SIN, node.getNode()), Operators.POWER, ConstantNode.TWO)));
     RULES.put(ASIN, new ArcRule(ConstantNode.ONE));
     RULES.put(ACOS, new ArcRule(ConstantNode.MINUS_ONE));
-    RULES.put(ATG, node -> {
-      BinaryNode right = new BinaryNode(Operators.MULTIPLY);
-      right.setChildren(node.getNode(), node.getNode());
-      AbstractNode bottom = new BinaryNode(Operators.PLUS);
-      bottom.setChildren(ConstantNode.ONE, right);
-      BinaryNode result = new BinaryNode(Operators.DIVIDE);
-      result.setChildren(ConstantNode.ONE, bottom);
-      return result;
-    });
+    RULES.put(ATG, node -> binaryNode(ConstantNode.ONE, Operators.DIVIDE,
+        binaryNode(ConstantNode.ONE, Operators.PLUS, binaryNode(node.getNode(), Operators.MULTIPLY, node.getNode()))));
     RULES.put(SH, node -> functionNode(CH, node.getNode()));
     RULES.put(CH, node -> functionNode(SH, node.getNode()));
-    RULES.put(TH, node -> {
-      FunctionNode left = new FunctionNode(CH);
-      left.setChildren(null, node.getNode());
-      BinaryNode right = new BinaryNode(Operators.POWER);
-      right.setChildren(left, ConstantNode.TWO);
-      BinaryNode result = new BinaryNode(Operators.DIVIDE);
-      result.setChildren(ConstantNode.ONE, right);
+    RULES.put(TH, node -> binaryNode(ConstantNode.ONE, Operators.DIVIDE,
+        binaryNode(functionNode(CH, node.getNode()), Operators.POWER, ConstantNode.TWO)));
+    NARY_RULES.put(SUM, (node, arg) -> {
+      AbstractNode result = ConstantNode.ZERO;
+      for (AbstractNode argument : node.getArguments()) {
+        result = binaryNode(result, Operators.PLUS, argument.derivative(arg));
+      }
       return result;
     });
+    NARY_RULES.put(POW, (node, arg) -> binaryNode(node.getArguments().get(0), Operators.POWER,
+        node.getArguments().get(1)).derivative(arg));
+    NARY_RULES.put(IF, (node, arg) -> new FunctionNode(IF, Arrays.asList(node.getArguments().get(0),
+        node.getArguments().get(1).derivative(arg), node.getArguments().get(2).derivative(arg))));
+    NARY_RULES.put(HYPOT, (node, arg) -> {
+      AbstractNode x = node.getArguments().get(0);
+      AbstractNode y = node.getArguments().get(1);
+      AbstractNode numerator = binaryNode(binaryNode(x, Operators.MULTIPLY, x.derivative(arg)), Operators.PLUS,
+          binaryNode(y, Operators.MULTIPLY, y.derivative(arg)));
+      return binaryNode(numerator, Operators.DIVIDE, node);
+    });
+    NARY_RULES.put(ATAN2, (node, arg) -> {
+      AbstractNode y = node.getArguments().get(0);
+      AbstractNode x = node.getArguments().get(1);
+      AbstractNode numerator = binaryNode(binaryNode(x, Operators.MULTIPLY, y.derivative(arg)), Operators.MINUS,
+          binaryNode(y, Operators.MULTIPLY, x.derivative(arg)));
+      AbstractNode denominator = binaryNode(binaryNode(x, Operators.MULTIPLY, x), Operators.PLUS,
+          binaryNode(y, Operators.MULTIPLY, y));
+      return binaryNode(numerator, Operators.DIVIDE, denominator);
+    });
   }
 
-  Functions() {
-    addFunction(SQRT);
-    addFunction(EXP);
-    addFunction(LN);
-    addFunction(LOG);
-    addFunction(SIGN);
-    addFunction(ABS);
-    addFunction(SIN);
-    addFunction(COS);
-    addFunction(TG);
-    addFunction(CTG);
-    addFunction(ASIN);
-    addFunction(ACOS);
-    addFunction(ATG);
-    addFunction(SH);
-    addFunction(CH);
-    addFunction(TH);
+  private Functions() {
   }
 
-  FunctionNode getNode(Token token) {
-    MathFunction function = functionMap.get(token.getValue());
-    return Objects.nonNull(function) ? new FunctionNode(token, function) : null;
+  static List<MathFunction> getFunctions() {
+    return FUNCTIONS;
   }
 
   static DerivativeRule<FunctionNode> getRule(MathFunction function) {
-    return RULES.get(function);
+    DerivativeRule<FunctionNode> rule = RULES.get(function);
+    return rule != null ? rule : NARY_RULES.get(function);
   }
 
   private static FunctionNode functionNode(MathFunction function, AbstractNode argument) {
-    FunctionNode result = new FunctionNode(function);
-    result.setChildren(null, argument);
-    return result;
+    return new FunctionNode(function, argument);
   }
 
   private static BinaryNode binaryNode(AbstractNode left, MathOperator operator, AbstractNode right) {
-    BinaryNode result = new BinaryNode(operator);
-    result.setChildren(left, right);
+    return new BinaryNode(operator, left, right);
+  }
+
+  private static int extremum(double[] args, int sign) {
+    int index = 0;
+    for (int i = 1; i < args.length && !Double.isNaN(args[index]); i++) {
+      if (Double.isNaN(args[i]) || Double.compare(args[i], args[index]) * sign > 0) {
+        index = i;
+      }
+    }
+    return index;
+  }
+
+  private static double sum(double[] args) {
+    double result = args[0];
+    for (int i = 1; i < args.length; i++) {
+      result += args[i];
+    }
     return result;
   }
 
-  private void addFunction(MathFunction function) {
-    functionMap.put(function.getName(), function);
+  private static int clamped(double[] args) {
+    if (args[0] < args[1]) {
+      return 1;
+    }
+    return args[0] > args[2] ? 2 : 0;
   }
 
   private interface FunctionRule extends DerivativeRule<FunctionNode> {
 
     @Override
     default AbstractNode derivative(FunctionNode node, String arg) {
-      BinaryNode result = new BinaryNode(Operators.MULTIPLY);
-      result.setChildren(simpleDerivative(node), node.getNode().derivative(arg));
-      return result;
+      return binaryNode(simpleDerivative(node), Operators.MULTIPLY, node.getNode().derivative(arg));
     }
 
     AbstractNode simpleDerivative(FunctionNode node);
@@ -163,15 +195,9 @@ final class Functions {
 
     @Override
     public AbstractNode simpleDerivative(FunctionNode node) {
-      BinaryNode right = new BinaryNode(Operators.MULTIPLY);
-      right.setChildren(node.getNode(), node.getNode());
-      AbstractNode difference = new BinaryNode(Operators.MINUS);
-      difference.setChildren(ConstantNode.ONE, right);
-      AbstractNode bottom = new FunctionNode(SQRT);
-      bottom.setChildren(null, difference);
-      BinaryNode result = new BinaryNode(Operators.DIVIDE);
-      result.setChildren(constantNode, bottom);
-      return result;
+      BinaryNode right = binaryNode(node.getNode(), Operators.MULTIPLY, node.getNode());
+      BinaryNode difference = binaryNode(ConstantNode.ONE, Operators.MINUS, right);
+      return binaryNode(constantNode, Operators.DIVIDE, functionNode(SQRT, difference));
     }
   }
 }
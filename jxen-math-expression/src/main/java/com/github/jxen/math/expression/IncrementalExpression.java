@@ -0,0 +1,94 @@
+package com.github.jxen.math.expression;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * {@code IncrementalExpression} class represents stateful evaluator, which keeps value of every subexpression. When
+ * a variable is updated, only subexpressions depending on it are recomputed along the path to the root, so an update
+ * costs time proportional to depth of expression rather than to its size. Impure functions not depending on any
+ * variable are evaluated once. Incremental expression is not safe to use from multiple threads.
+ *
+ * @author Denis Murashev
+ * @since Math Expression Parser 1.2
+ */
+public final class IncrementalExpression {
+
+  private final List<String> variables;
+  private final Tape tape;
+  private final double[] args;
+  private final double[] values;
+  private final int[][] dependents;
+  private double value;
+
+  IncrementalExpression(List<String> variables, Tape tape, double[] args) {
+    this.variables = variables;
+    this.tape = tape;
+    this.args = args;
+    this.values = tape.values(args);
+    this.value = values[values.length - 1];
+    this.dependents = new int[variables.size()][];
+    for (int i = 0; i < dependents.length; i++) {
+      dependents[i] = tape.dependents(variables.get(i));
+    }
+  }
+
+  /**
+   * Updates variable value and recomputes dependent subexpressions.
+   *
+   * @param variable variable name
+   * @param arg      new value
+   * @return evaluated expression
+   * @throws ExpressionException if variable is not bound
+   */
+  public double set(String variable, double arg) {
+    int index = variables.indexOf(variable.toLowerCase(Locale.getDefault()));
+    if (index < 0) {
+      throw new ExpressionException("Unbound variable: " + variable, 0, 0);
+    }
+    return set(index, arg);
+  }
+
+  /**
+   * Updates value of positional argument and recomputes dependent subexpressions.
+   *
+   * @param index argument position in order of {@link #getVariables()}
+   * @param arg   new value
+   * @return evaluated expression
+   */
+  public double set(int index, double arg) {
+    if (Double.doubleToLongBits(args[index]) != Double.doubleToLongBits(arg)) {
+      args[index] = arg;
+      value = tape.update(dependents[index], args, values);
+    }
+    return value;
+  }
+
+  /**
+   * Provides current value of expression.
+   *
+   * @return evaluated expression
+   */
+  public double getValue() {
+    return value;
+  }
+
+  /**
+   * Provides current value of variable.
+   *
+   * @param index argument position in order of {@link #getVariables()}
+   * @return variable value
+   */
+  public double get(int index) {
+    return args[index];
+  }
+
+  /**
+   * Provides variables bound to positional arguments.
+   *
+   * @return variable names
+   */
+  public List<String> getVariables() {
+    return variables;
+  }
+}
@@ -0,0 +1,135 @@
+package com.github.jxen.math.expression;
+
+/**
+ * {@code Interval} class represents closed range of real numbers. Interval evaluation of expression provides range
+ * which is guaranteed to contain every value of expression over given ranges of its variables.
+ *
+ * @author Denis Murashev
+ * @since Math Expression Parser 1.2
+ */
+public final class Interval {
+
+  /**
+   * Empty interval.
+   */
+  public static final Interval EMPTY = new Interval();
+
+  /**
+   * Interval containing all real numbers.
+   */
+  public static final Interval ENTIRE = new Interval(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+
+  private final double lower;
+  private final double upper;
+
+  /**
+   * Initializes with given values.
+   *
+   * @param lower lower bound
+   * @param upper upper bound
+   * @throws IllegalArgumentException if bounds are not ordered
+   */
+  public Interval(double lower, double upper) {
+    if (!(lower <= upper)) {
+      throw new IllegalArgumentException("Illegal interval bounds: [" + lower + ", " + upper + "]");
+    }
+    this.lower = lower;
+    this.upper = upper;
+  }
+
+  private Interval() {
+    lower = Double.NaN;
+    upper = Double.NaN;
+  }
+
+  /**
+   * Creates interval containing single value.
+   *
+   * @param value value
+   * @return interval
+   */
+  public static Interval of(double value) {
+    return Double.isNaN(value) ? EMPTY : new Interval(value, value);
+  }
+
+  /**
+   * Provides lower bound.
+   *
+   * @return lower bound, {@code NaN} for empty interval
+   */
+  public double getLower() {
+    return lower;
+  }
+
+  /**
+   * Provides upper bound.
+   *
+   * @return upper bound, {@code NaN} for empty interval
+   */
+  public double getUpper() {
+    return upper;
+  }
+
+  /**
+   * Provides width of interval.
+   *
+   * @return width, {@code NaN} for empty interval
+   */
+  public double getWidth() {
+    return upper - lower;
+  }
+
+  /**
+   * Provides midpoint of interval.
+   *
+   * @return midpoint, {@code NaN} for empty interval
+   */
+  public double getMidpoint() {
+    return lower == upper ? lower : lower / 2 + upper / 2;
+  }
+
+  /**
+   * Checks if interval is empty.
+   *
+   * @return {@code true} if interval is empty
+   */
+  public boolean isEmpty() {
+    return this == EMPTY;
+  }
+
+  /**
+   * Checks if interval contains given value.
+   *
+   * @param value value
+   * @return {@code true} if value belongs to interval
+   */
+  public boolean contains(double value) {
+    return lower <= value && value <= upper;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null) {
+      return false;
+    }
+    if (getClass() != obj.getClass()) {
+      return false;
+    }
+    Interval other = (Interval) obj;
+    return Double.compare(lower, other.lower) == 0 && Double.compare(upper, other.upper) == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    final int prime = 31;
+    return prime * Double.hashCode(lower) + Double.hashCode(upper);
+  }
+
+  @Override
+  public String toString() {
+    return isEmpty() ? "[]" : "[" + lower + ", " + upper + "]";
+  }
+}
@@ -0,0 +1,237 @@
+package com.github.jxen.math.expression;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+final class Intervals {
+
+  private static final double HALF_PI = Math.PI / 2;
+
+  private static final double TWO_PI = 2 * Math.PI;
+
+  private static final Map<MathOperator, BinaryOperator<Interval>> OPERATOR_RULES = new HashMap<>();
+
+  private static final Map<MathFunction, UnaryOperator<Interval>> FUNCTION_RULES = new HashMap<>();
+
+  private static final Map<MathFunction, Function<Interval[], Interval>> NARY_RULES = new HashMap<>();
+
+  static {
+    OPERATOR_RULES.put(Operators.PLUS, (x, y) -> outward(x.getLower() + y.getLower(), x.getUpper() + y.getUpper()));
+    OPERATOR_RULES.put(Operators.MINUS, (x, y) -> outward(x.getLower() - y.getUpper(), x.getUpper() - y.getLower()));
+    OPERATOR_RULES.put(Operators.MULTIPLY, Intervals::multiply);
+    OPERATOR_RULES.put(Operators.DIVIDE, Intervals::divide);
+    OPERATOR_RULES.put(Operators.MODULO, Intervals::modulo);
+    OPERATOR_RULES.put(Operators.POWER, Intervals::power);
+    FUNCTION_RULES.put(Functions.SQRT, x -> increasing(Functions.SQRT, clip(x, 0, Double.POSITIVE_INFINITY)));
+    FUNCTION_RULES.put(Functions.EXP, x -> increasing(Functions.EXP, x));
+    FUNCTION_RULES.put(Functions.LN, x -> increasing(Functions.LN, clip(x, 0, Double.POSITIVE_INFINITY)));
+    FUNCTION_RULES.put(Functions.LOG, x -> increasing(Functions.LOG, clip(x, 0, Double.POSITIVE_INFINITY)));
+    FUNCTION_RULES.put(Functions.SIGN, x -> new Interval(Math.signum(x.getLower()), Math.signum(x.getUpper())));
+    FUNCTION_RULES.put(Functions.ABS, Intervals::abs);
+    FUNCTION_RULES.put(Functions.SIN, x -> periodic(Functions.SIN, x, HALF_PI, -HALF_PI));
+    FUNCTION_RULES.put(Functions.COS, x -> periodic(Functions.COS, x, 0, Math.PI));
+    FUNCTION_RULES.put(Functions.TG, x -> singular(Functions.TG, x, HALF_PI, true));
+    FUNCTION_RULES.put(Functions.CTG, x -> singular(Functions.CTG, x, 0, false));
+    FUNCTION_RULES.put(Functions.ASIN, x -> increasing(Functions.ASIN, clip(x, -1, 1)));
+    FUNCTION_RULES.put(Functions.ACOS, x -> decreasing(Functions.ACOS, clip(x, -1, 1)));
+    FUNCTION_RULES.put(Functions.ATG, x -> increasing(Functions.ATG, x));
+    FUNCTION_RULES.put(Functions.SH, x -> increasing(Functions.SH, x));
+    FUNCTION_RULES.put(Functions.CH, x -> clip(increasing(Functions.CH, abs(x)), 1, Double.POSITIVE_INFINITY));
+    FUNCTION_RULES.put(Functions.TH, x -> clip(increasing(Functions.TH, x), -1, 1));
+    NARY_RULES.put(Functions.MIN, x -> reduce(x, Intervals::min));
+    NARY_RULES.put(Functions.MAX, x -> reduce(x, Intervals::max));
+    NARY_RULES.put(Functions.SUM, x -> reduce(x, OPERATOR_RULES.get(Operators.PLUS)));
+    NARY_RULES.put(Functions.HYPOT, x -> hypot(abs(x[0]), abs(x[1])));
+    NARY_RULES.put(Functions.ATAN2, x -> outward(-Math.PI, Math.PI));
+    NARY_RULES.put(Functions.CLAMP, x -> max(x[1], min(x[0], x[2])));
+    NARY_RULES.put(Functions.POW, x -> power(x[0], x[1]));
+    NARY_RULES.put(Functions.IF, Intervals::condition);
+  }
+
+  private Intervals() {
+  }
+
+  static BinaryOperator<Interval> getRule(MathOperator operator) {
+    return OPERATOR_RULES.get(operator);
+  }
+
+  static UnaryOperator<Interval> getRule(MathFunction function) {
+    return FUNCTION_RULES.get(function);
+  }
+
+  static Function<Interval[], Interval> getNaryRule(MathFunction function) {
+    return NARY_RULES.get(function);
+  }
+
+  private static Interval outward(double lower, double upper) {
+    if (Double.isNaN(lower) || Double.isNaN(upper)) {
+      return Interval.ENTIRE;
+    }
+    return new Interval(Math.nextDown(lower), Math.nextUp(upper));
+  }
+
+  private static Interval clip(Interval x, double min, double max) {
+    double lower = Math.max(x.getLower(), min);
+    double upper = Math.min(x.getUpper(), max);
+    return lower <= upper ? new Interval(lower, upper) : Interval.EMPTY;
+  }
+
+  private static Interval increasing(MathFunction function, Interval x) {
+    return x.isEmpty() ? x : outward(function.value(x.getLower()), function.value(x.getUpper()));
+  }
+
+  private static Interval decreasing(MathFunction function, Interval x) {
+    return x.isEmpty() ? x : outward(function.value(x.getUpper()), function.value(x.getLower()));
+  }
+
+  private static Interval abs(Interval x) {
+    if (x.getLower() >= 0) {
+      return x;
+    }
+    if (x.getUpper() <= 0) {
+      return new Interval(-x.getUpper(), -x.getLower());
+    }
+    return new Interval(0, Math.max(-x.getLower(), x.getUpper()));
+  }
+
+  private static Interval periodic(MathFunction function, Interval x, double maximum, double minimum) {
+    if (x.getWidth() >= TWO_PI || Double.isInfinite(x.getWidth())) {
+      return new Interval(-1, 1);
+    }
+    double first = function.value(x.getLower());
+    double last = function.value(x.getUpper());
+    double lower = contains(x, minimum, TWO_PI) ? -1 : Math.min(first, last);
+    double upper = contains(x, maximum, TWO_PI) ? 1 : Math.max(first, last);
+    return clip(outward(lower, upper), -1, 1);
+  }
+
+  private static Interval singular(MathFunction function, Interval x, double pole, boolean increasing) {
+    if (x.getWidth() >= Math.PI || Double.isInfinite(x.getWidth()) || contains(x, pole, Math.PI)) {
+      return Interval.ENTIRE;
+    }
+    return increasing ? increasing(function, x) : decreasing(function, x);
+  }
+
+  private static boolean contains(Interval x, double offset, double period) {
+    return offset + Math.ceil((x.getLower() - offset) / period) * period <= x.getUpper();
+  }
+
+  private static Interval reduce(Interval[] x, BinaryOperator<Interval> operator) {
+    Interval result = x[0];
+    for (int i = 1; i < x.length; i++) {
+      result = operator.apply(result, x[i]);
+    }
+    return result;
+  }
+
+  private static Interval min(Interval x, Interval y) {
+    return new Interval(Math.min(x.getLower(), y.getLower()), Math.min(x.getUpper(), y.getUpper()));
+  }
+
+  private static Interval max(Interval x, Interval y) {
+    return new Interval(Math.max(x.getLower(), y.getLower()), Math.max(x.getUpper(), y.getUpper()));
+  }
+
+  private static Interval hypot(Interval x, Interval y) {
+    return outward(Math.hypot(x.getLower(), y.getLower()), Math.hypot(x.getUpper(), y.getUpper()));
+  }
+
+  private static Interval condition(Interval[] x) {
+    if (!x[0].contains(0)) {
+      return x[1];
+    }
+    if (x[0].getLower() == 0 && x[0].getUpper() == 0) {
+      return x[2];
+    }
+    return new Interval(Math.min(x[1].getLower(), x[2].getLower()), Math.max(x[1].getUpper(), x[2].getUpper()));
+  }
+
+  private static Interval multiply(Interval x, Interval y) {
+    double[] products = {
+        product(x.getLower(), y.getLower()),
+        product(x.getLower(), y.getUpper()),
+        product(x.getUpper(), y.getLower()),
+        product(x.getUpper(), y.getUpper()),
+    };
+    double lower = products[0];
+    double upper = products[0];
+    for (double product : products) {
+      lower = Math.min(lower, product);
+      upper = Math.max(upper, product);
+    }
+    return outward(lower, upper);
+  }
+
+  private static double product(double x, double y) {
+    return x == 0 || y == 0 ? 0 : x * y;
+  }
+
+  private static Interval divide(Interval x, Interval y) {
+    if (y.getLower() > 0 || y.getUpper() < 0) {
+      return multiply(x, outward(1 / y.getUpper(), 1 / y.getLower()));
+    }
+    return y.getLower() == 0 && y.getUpper() == 0 ? Interval.EMPTY : Interval.ENTIRE;
+  }
+
+  private static Interval modulo(Interval x, Interval y) {
+    if (y.contains(0)) {
+      return Interval.ENTIRE;
+    }
+    double max = Math.max(Math.abs(y.getLower()), Math.abs(y.getUpper()));
+    double min = Math.min(Math.abs(y.getLower()), Math.abs(y.getUpper()));
+    if (x.getLower() > -min && x.getUpper() < min && (x.getLower() >= 0 || x.getUpper() <= 0)) {
+      return x;
+    }
+    double lower = x.getLower() >= 0 ? 0 : Math.max(x.getLower(), -max);
+    double upper = x.getUpper() <= 0 ? 0 : Math.min(x.getUpper(), max);
+    return new Interval(lower, upper);
+  }
+
+  private static Interval power(Interval x, Interval y) {
+    double exponent = y.getLower();
+    if (exponent == y.getUpper() && exponent == Math.rint(exponent) && !Double.isInfinite(exponent)) {
+      return integralPower(x, exponent);
+    }
+    if (x.getLower() < 0 && exponent != y.getUpper()) {
+      return Interval.ENTIRE;
+    }
+    Interval base = clip(x, 0, Double.POSITIVE_INFINITY);
+    if (base.isEmpty()) {
+      return base;
+    }
+    double[] powers = {
+        Math.pow(base.getLower(), y.getLower()),
+        Math.pow(base.getLower(), y.getUpper()),
+        Math.pow(base.getUpper(), y.getLower()),
+        Math.pow(base.getUpper(), y.getUpper()),
+    };
+    double lower = powers[0];
+    double upper = powers[0];
+    for (double power : powers) {
+      lower = Math.min(lower, power);
+      upper = Math.max(upper, power);
+    }
+    return outward(lower, upper);
+  }
+
+  private static Interval integralPower(Interval x, double exponent) {
+    if (exponent == 0) {
+      return Interval.of(1);
+    }
+    if (exponent < 0) {
+      return divide(Interval.of(1), integralPower(x, -exponent));
+    }
+    double lower = Math.pow(x.getLower(), exponent);
+    double upper = Math.pow(x.getUpper(), exponent);
+    if (exponent % 2 != 0 || x.getLower() >= 0) {
+      return outward(lower, upper);
+    }
+    if (x.getUpper() <= 0) {
+      return outward(upper, lower);
+    }
+    return new Interval(0, Math.nextUp(Math.max(lower, upper)));
+  }
+}
@@ -1,6 +1,9 @@
 package com.github.jxen.math.expression;
 
+import java.util.Arrays;
+import java.util.function.DoubleBinaryOperator;
 import java.util.function.DoubleUnaryOperator;
+import java.util.function.ToDoubleFunction;
 
 /**
  * {@code MathFunction} class represents mathematical function.
@@ -11,7 +14,16 @@ import java.util.function.DoubleUnaryOperator;
 public final class MathFunction {
 
   private final String name;
+  private final int minArity;
+  private final int maxArity;
   private final DoubleUnaryOperator operator;
+  private final ToDoubleFunction<double[]> function;
+  private final DoubleBinaryOperator binary;
+  private final TernaryOperator ternary;
+  private final DoubleUnaryOperator derivative;
+  private final PartialDerivative partialDerivative;
+  private final boolean pure;
+  private final MathFunction derivativeFunction;
 
   /**
    * Initializes with given values.
@@ -20,8 +32,93 @@ public final class MathFunction {
    * @param operator operator
    */
   public MathFunction(String name, DoubleUnaryOperator operator) {
+    this(name, operator, null);
+  }
+
+  /**
+   * Initializes with given values.
+   *
+   * @param name       name
+   * @param operator   operator
+   * @param derivative derivative of operator, {@code null} if function is not differentiable
+   * @since Math Expression Parser 1.2
+   */
+  public MathFunction(String name, DoubleUnaryOperator operator, DoubleUnaryOperator derivative) {
+    this(name, operator, derivative, true);
+  }
+
+  /**
+   * Initializes with given values. Calls of pure function with constant arguments are folded into constants and equal
+   * calls are evaluated once, impure function is called every time it occurs in expression.
+   *
+   * @param name       name
+   * @param operator   operator
+   * @param derivative derivative of operator, {@code null} if function is not differentiable
+   * @param pure       {@code true} if result depends only on argument
+   * @since Math Expression Parser 1.2
+   */
+  public MathFunction(String name, DoubleUnaryOperator operator, DoubleUnaryOperator derivative, boolean pure) {
     this.name = name;
+    this.minArity = 1;
+    this.maxArity = 1;
     this.operator = operator;
+    this.function = null;
+    this.binary = null;
+    this.ternary = null;
+    this.derivative = derivative;
+    this.partialDerivative = null;
+    this.pure = pure;
+    this.derivativeFunction = derivative == null ? null : new MathFunction(name + '\'', derivative, null, pure);
+  }
+
+  /**
+   * Initializes function of several arguments.
+   *
+   * @param name     name
+   * @param minArity minimal number of arguments
+   * @param maxArity maximal number of arguments, {@link Integer#MAX_VALUE} for any number of arguments
+   * @param function function
+   * @since Math Expression Parser 1.2
+   */
+  public MathFunction(String name, int minArity, int maxArity, ToDoubleFunction<double[]> function) {
+    this(name, minArity, maxArity, function, null, true);
+  }
+
+  /**
+   * Initializes function of several arguments.
+   *
+   * @param name       name
+   * @param minArity   minimal number of arguments
+   * @param maxArity   maximal number of arguments, {@link Integer#MAX_VALUE} for any number of arguments
+   * @param function   function
+   * @param derivative partial derivatives of function, {@code null} if function is not differentiable
+   * @param pure       {@code true} if result depends only on arguments
+   * @throws IllegalArgumentException if arity range is illegal
+   * @since Math Expression Parser 1.2
+   */
+  public MathFunction(String name, int minArity, int maxArity, ToDoubleFunction<double[]> function,
+      PartialDerivative derivative, boolean pure) {
+    this(name, minArity, maxArity, function, derivative, pure, null, null);
+  }
+
+  MathFunction(String name, int minArity, int maxArity, ToDoubleFunction<double[]> function,
+      PartialDerivative derivative, boolean pure, DoubleBinaryOperator binary, TernaryOperator ternary) {
+    if (minArity < 1 || maxArity < minArity) {
+      throw new IllegalArgumentException("Illegal arity range: " + minArity + ".." + maxArity);
+    }
+    this.name = name;
+    this.minArity = minArity;
+    this.maxArity = maxArity;
+    this.operator = null;
+    this.function = function;
+    this.binary = binary;
+    this.ternary = ternary;
+    this.derivative = null;
+    this.partialDerivative = derivative;
+    this.pure = pure;
+    this.derivativeFunction = derivative == null ? null : new MathFunction(name + '\'', minArity + 1,
+        maxArity == Integer.MAX_VALUE ? maxArity : maxArity + 1,
+        args -> derivative.derivative(Arrays.copyOfRange(args, 1, args.length), (int) args[0]), null, pure);
   }
 
   /**
@@ -33,6 +130,26 @@ public final class MathFunction {
     return name;
   }
 
+  /**
+   * Provides minimal number of arguments.
+   *
+   * @return minimal number of arguments
+   * @since Math Expression Parser 1.2
+   */
+  public int getMinArity() {
+    return minArity;
+  }
+
+  /**
+   * Provides maximal number of arguments.
+   *
+   * @return maximal number of arguments, {@link Integer#MAX_VALUE} for any number of arguments
+   * @since Math Expression Parser 1.2
+   */
+  public int getMaxArity() {
+    return maxArity;
+  }
+
   /**
    * Evaluates function value.
    *
@@ -40,6 +157,76 @@ public final class MathFunction {
    * @return function result
    */
   public double value(double arg) {
-    return operator.applyAsDouble(arg);
+    return operator != null ? operator.applyAsDouble(arg) : function.applyAsDouble(new double[] {arg});
+  }
+
+  /**
+   * Evaluates function value.
+   *
+   * @param args arguments
+   * @return function result
+   * @since Math Expression Parser 1.2
+   */
+  public double value(double[] args) {
+    return operator != null ? operator.applyAsDouble(args[0]) : function.applyAsDouble(args);
+  }
+
+  double value(double first, double second) {
+    return binary != null ? binary.applyAsDouble(first, second) : value(new double[] {first, second});
+  }
+
+  double value(double first, double second, double third) {
+    return ternary != null ? ternary.applyAsDouble(first, second, third) : value(new double[] {first, second, third});
+  }
+
+  /**
+   * Checks if derivative value is available.
+   *
+   * @return {@code true} if function is differentiable
+   * @since Math Expression Parser 1.2
+   */
+  public boolean isDifferentiable() {
+    return derivative != null || partialDerivative != null;
+  }
+
+  /**
+   * Checks if function is pure.
+   *
+   * @return {@code true} if result depends only on argument
+   * @since Math Expression Parser 1.2
+   */
+  public boolean isPure() {
+    return pure;
+  }
+
+  /**
+   * Evaluates derivative value.
+   *
+   * @param arg argument
+   * @return derivative value
+   * @since Math Expression Parser 1.2
+   */
+  public double derivative(double arg) {
+    return derivative != null ? derivative.applyAsDouble(arg) : partialDerivative.derivative(new double[] {arg}, 0);
+  }
+
+  /**
+   * Evaluates partial derivative value.
+   *
+   * @param args  arguments
+   * @param index index of argument to differentiate by
+   * @return partial derivative value
+   * @since Math Expression Parser 1.2
+   */
+  public double derivative(double[] args, int index) {
+    return derivative != null ? derivative.applyAsDouble(args[0]) : partialDerivative.derivative(args, index);
+  }
+
+  boolean isUnary() {
+    return operator != null;
+  }
+
+  MathFunction getDerivativeFunction() {
+    return derivativeFunction;
   }
 }
@@ -11,19 +11,19 @@ import java.util.function.DoubleBinaryOperator;
 public final class MathOperator {
 
   /**
-   * To be moved.
+   * Priority of additive operators.
    */
-  static final int LOW_PRIORITY = 1;
+  public static final int LOW_PRIORITY = 1;
 
   /**
-   * To be moved.
+   * Priority of multiplicative operators.
    */
-  static final int MEDIUM_PRIORITY = 2;
+  public static final int MEDIUM_PRIORITY = 2;
 
   /**
-   * To be moved.
+   * Priority of power operator.
    */
-  static final int HIGH_PRIORITY = 3;
+  public static final int HIGH_PRIORITY = 3;
 
   private final String symbol;
   private final int priority;
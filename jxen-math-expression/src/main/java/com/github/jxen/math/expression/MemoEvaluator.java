@@ -0,0 +1,33 @@
+package com.github.jxen.math.expression;
+
+final class MemoEvaluator implements Evaluator {
+
+  private final Evaluator evaluator;
+  private final int[] slots;
+  private final long[] inputs;
+  private boolean valid;
+  private double value;
+
+  MemoEvaluator(Evaluator evaluator, int[] slots) {
+    this.evaluator = evaluator;
+    this.slots = slots;
+    this.inputs = new long[slots.length];
+  }
+
+  @Override
+  public double evaluate(double[] args) {
+    boolean changed = !valid;
+    for (int i = 0; i < slots.length; i++) {
+      long input = Double.doubleToLongBits(args[slots[i]]);
+      if (input != inputs[i]) {
+        inputs[i] = input;
+        changed = true;
+      }
+    }
+    if (changed) {
+      value = evaluator.evaluate(args);
+      valid = true;
+    }
+    return value;
+  }
+}
@@ -0,0 +1,69 @@
+package com.github.jxen.math.expression;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@code MemoizedExpression} class represents expression compiled into evaluator with positional arguments, which
+ * caches values of subexpressions depending only on declared slow variables. Such subexpressions are recomputed only
+ * when some of their inputs change between calls. Memoized expression keeps state between calls, so it is not safe to
+ * use from multiple threads.
+ *
+ * @author Denis Murashev
+ * @since Math Expression Parser 1.2
+ */
+public final class MemoizedExpression {
+
+  private final List<String> variables;
+  private final Evaluator evaluator;
+  private final int frameSize;
+
+  MemoizedExpression(List<String> variables, Evaluator evaluator, int frameSize) {
+    this.variables = Collections.unmodifiableList(variables);
+    this.evaluator = evaluator;
+    this.frameSize = frameSize;
+  }
+
+  /**
+   * Evaluates expression.
+   *
+   * @param args argument values in order of {@link #getVariables()}
+   * @return evaluated expression
+   */
+  public double applyAsDouble(double... args) {
+    return evaluator.evaluate(frameSize > variables.size() ? Arrays.copyOf(args, frameSize) : args);
+  }
+
+  /**
+   * Evaluates expression in caller-owned frame, so that no working array is allocated per call. Arguments occupy first
+   * positions of the frame, remaining positions are overwritten with values of shared subexpressions.
+   *
+   * @param frame argument values in order of {@link #getVariables()} followed by working space, at least
+   *              {@link #getFrameSize()} long
+   * @return evaluated expression
+   * @since Math Expression Parser 1.2
+   */
+  public double evaluateFrame(double[] frame) {
+    return evaluator.evaluate(frame);
+  }
+
+  /**
+   * Provides minimal length of frame accepted by {@link #evaluateFrame(double[])}.
+   *
+   * @return number of variables plus number of shared subexpressions
+   * @since Math Expression Parser 1.2
+   */
+  public int getFrameSize() {
+    return frameSize;
+  }
+
+  /**
+   * Provides variables bound to positional arguments.
+   *
+   * @return variable names
+   */
+  public List<String> getVariables() {
+    return variables;
+  }
+}
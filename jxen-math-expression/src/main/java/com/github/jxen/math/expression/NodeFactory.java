@@ -0,0 +1,9 @@
+package com.github.jxen.math.expression;
+
+import java.util.Deque;
+
+@FunctionalInterface
+interface NodeFactory {
+
+  AbstractNode create(Deque<AbstractNode> operands);
+}
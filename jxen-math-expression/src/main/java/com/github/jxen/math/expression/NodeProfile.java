@@ -0,0 +1,91 @@
+package com.github.jxen.math.expression;
+
+/**
+ * {@code NodeProfile} class represents evaluation statistics of a single subexpression.
+ *
+ * @author Denis Murashev
+ * @since Math Expression Parser 1.2
+ */
+public final class NodeProfile {
+
+  private final String expression;
+  private final int position;
+  private long count;
+  private long totalNanos;
+  private long selfNanos;
+
+  NodeProfile(String expression, int position) {
+    this.expression = expression;
+    this.position = position;
+  }
+
+  /**
+   * Provides subexpression.
+   *
+   * @return subexpression in canonical form
+   */
+  public String getExpression() {
+    return expression;
+  }
+
+  /**
+   * Provides position of subexpression in parsed source.
+   *
+   * @return position of operator or function token, -1 if subexpression was created by transformation
+   */
+  public int getPosition() {
+    return position;
+  }
+
+  /**
+   * Provides number of evaluations.
+   *
+   * @return evaluation count
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Provides time spent evaluating subexpression including its operands.
+   *
+   * @return accumulated nanoseconds
+   */
+  public long getTotalNanos() {
+    return totalNanos;
+  }
+
+  /**
+   * Provides time spent evaluating subexpression excluding instrumented operands.
+   *
+   * @return accumulated nanoseconds
+   */
+  public long getSelfNanos() {
+    return selfNanos;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%6d %12d %12d %12d  %s", position, count, totalNanos, selfNanos, expression);
+  }
+
+  void record(long total, long self) {
+    count++;
+    totalNanos += total;
+    selfNanos += self;
+  }
+
+  void reset() {
+    count = 0;
+    totalNanos = 0;
+    selfNanos = 0;
+  }
+
+  NodeProfile copy() {
+    NodeProfile copy = new NodeProfile(expression, position);
+    copy.count = count;
+    copy.totalNanos = totalNanos;
+    copy.selfNanos = selfNanos;
+    return copy;
+  }
+}
@@ -1,8 +1,10 @@
 package com.github.jxen.math.expression;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 
 final class Operators {
 
@@ -28,38 +30,132 @@ final class Operators {
     RULES.put(POWER, new PowerRule());
   }
 
-  private final Map<String, MathOperator> operatorMap = new HashMap<>();
+  private static final List<MathOperator> OPERATORS = Collections.unmodifiableList(Arrays.asList(PLUS, MINUS,
+      MULTIPLY, DIVIDE, MODULO, POWER));
 
-  Operators() {
-    addOperator(PLUS);
-    addOperator(MINUS);
-    addOperator(MULTIPLY);
-    addOperator(DIVIDE);
-    addOperator(MODULO);
-    addOperator(POWER);
+  private Operators() {
   }
 
-  BinaryNode getNode(Token token) {
-    MathOperator operator = operatorMap.get(token.getValue());
-    return Objects.nonNull(operator) ? new BinaryNode(token, operator) : null;
+  static List<MathOperator> getOperators() {
+    return OPERATORS;
   }
 
   static DerivativeRule<BinaryNode> getRule(MathOperator operator) {
     return RULES.get(operator);
   }
 
-  private void addOperator(MathOperator operator) {
-    operatorMap.put(operator.getSymbol(), operator);
+  static Evaluator compile(MathOperator operator, Evaluator left, Evaluator right) {
+    if (operator == PLUS) {
+      return args -> left.evaluate(args) + right.evaluate(args);
+    }
+    if (operator == MINUS) {
+      return args -> left.evaluate(args) - right.evaluate(args);
+    }
+    if (operator == MULTIPLY) {
+      return args -> left.evaluate(args) * right.evaluate(args);
+    }
+    if (operator == DIVIDE) {
+      return args -> left.evaluate(args) / right.evaluate(args);
+    }
+    if (operator == MODULO) {
+      return args -> left.evaluate(args) % right.evaluate(args);
+    }
+    if (operator == POWER) {
+      return args -> Math.pow(left.evaluate(args), right.evaluate(args));
+    }
+    return args -> operator.evaluate(left.evaluate(args), right.evaluate(args));
+  }
+
+  static boolean isDifferentiable(MathOperator operator) {
+    return operator == PLUS || operator == MINUS || operator == MULTIPLY || operator == DIVIDE || operator == MODULO
+        || operator == POWER;
+  }
+
+  static double leftPartial(MathOperator operator, double left, double right, double value) {
+    if (operator == MULTIPLY) {
+      return right;
+    }
+    if (operator == DIVIDE) {
+      return 1 / right;
+    }
+    if (operator == POWER) {
+      return right * Math.pow(left, right - 1);
+    }
+    return 1;
+  }
+
+  static double rightPartial(MathOperator operator, double left, double right, double value) {
+    if (operator == MINUS) {
+      return -1;
+    }
+    if (operator == MULTIPLY) {
+      return left;
+    }
+    if (operator == DIVIDE) {
+      return -value / right;
+    }
+    if (operator == MODULO) {
+      return (value - left) / right;
+    }
+    if (operator == POWER) {
+      return value * Math.log(left);
+    }
+    return 1;
+  }
+
+  static void apply(MathOperator operator, double[] left, double[] right, int length) {
+    if (operator == PLUS) {
+      for (int i = 0; i < length; i++) {
+        left[i] += right[i];
+      }
+    } else if (operator == MINUS) {
+      for (int i = 0; i < length; i++) {
+        left[i] -= right[i];
+      }
+    } else if (operator == MULTIPLY) {
+      for (int i = 0; i < length; i++) {
+        left[i] *= right[i];
+      }
+    } else if (operator == DIVIDE) {
+      for (int i = 0; i < length; i++) {
+        left[i] /= right[i];
+      }
+    } else {
+      for (int i = 0; i < length; i++) {
+        left[i] = operator.evaluate(left[i], right[i]);
+      }
+    }
+  }
+
+  static void apply(MathOperator operator, double[] left, double right, int length) {
+    if (operator == PLUS) {
+      for (int i = 0; i < length; i++) {
+        left[i] += right;
+      }
+    } else if (operator == MINUS) {
+      for (int i = 0; i < length; i++) {
+        left[i] -= right;
+      }
+    } else if (operator == MULTIPLY) {
+      for (int i = 0; i < length; i++) {
+        left[i] *= right;
+      }
+    } else if (operator == DIVIDE) {
+      for (int i = 0; i < length; i++) {
+        left[i] /= right;
+      }
+    } else {
+      for (int i = 0; i < length; i++) {
+        left[i] = operator.evaluate(left[i], right);
+      }
+    }
   }
 
   private static class PlusRule implements DerivativeRule<BinaryNode> {
 
     @Override
     public AbstractNode derivative(BinaryNode node, String arg) {
-      BinaryNode result = new BinaryNode(Operators.PLUS);
-      result.setChildren(node.getLeftNode().derivative(arg), node.getRightNode().derivative(arg)
-      );
-      return result;
+      return new BinaryNode(PLUS, node.getLeftNode().derivative(arg), node.getRightNode().derivative(arg));
     }
   }
 
@@ -67,9 +163,7 @@ final class Operators {
 
     @Override
     public AbstractNode derivative(BinaryNode node, String arg) {
-      BinaryNode result = new BinaryNode(Operators.MINUS);
-      result.setChildren(node.getLeftNode().derivative(arg), node.getRightNode().derivative(arg));
-      return result;
+      return new BinaryNode(MINUS, node.getLeftNode().derivative(arg), node.getRightNode().derivative(arg));
     }
   }
 
@@ -77,13 +171,9 @@ final class Operators {
 
     @Override
     public AbstractNode derivative(BinaryNode node, String arg) {
-      BinaryNode first = new BinaryNode(Operators.MULTIPLY);
-      first.setChildren(node.getLeftNode().derivative(arg), node.getRightNode());
-      BinaryNode second = new BinaryNode(Operators.MULTIPLY);
-      second.setChildren(node.getLeftNode(), node.getRightNode().derivative(arg));
-      BinaryNode result = new BinaryNode(Operators.PLUS);
-      result.setChildren(first, second);
-      return result;
+      BinaryNode first = new BinaryNode(MULTIPLY, node.getLeftNode().derivative(arg), node.getRightNode());
+      BinaryNode second = new BinaryNode(MULTIPLY, node.getLeftNode(), node.getRightNode().derivative(arg));
+      return new BinaryNode(PLUS, first, second);
     }
   }
 
@@ -91,17 +181,11 @@ final class Operators {
 
     @Override
     public AbstractNode derivative(BinaryNode node, String arg) {
-      BinaryNode first = new BinaryNode(Operators.MULTIPLY);
-      first.setChildren(node.getLeftNode().derivative(arg), node.getRightNode());
-      BinaryNode second = new BinaryNode(Operators.MULTIPLY);
-      second.setChildren(node.getLeftNode(), node.getRightNode().derivative(arg));
-      BinaryNode top = new BinaryNode(Operators.MINUS);
-      top.setChildren(first, second);
-      BinaryNode bottom = new BinaryNode(Operators.POWER);
-      bottom.setChildren(node.getRightNode(), ConstantNode.TWO);
-      BinaryNode result = new BinaryNode(Operators.DIVIDE);
-      result.setChildren(top, bottom);
-      return result;
+      BinaryNode first = new BinaryNode(MULTIPLY, node.getLeftNode().derivative(arg), node.getRightNode());
+      BinaryNode second = new BinaryNode(MULTIPLY, node.getLeftNode(), node.getRightNode().derivative(arg));
+      BinaryNode top = new BinaryNode(MINUS, first, second);
+      BinaryNode bottom = new BinaryNode(POWER, node.getRightNode(), ConstantNode.TWO);
+      return new BinaryNode(DIVIDE, top, bottom);
     }
   }
 
@@ -113,33 +197,20 @@ final class Operators {
     }
 
     private AbstractNode simple(BinaryNode node, String arg) {
-      BinaryNode power = new BinaryNode(Operators.MINUS);
-      power.setChildren(node.getRightNode(), ConstantNode.ONE);
-      BinaryNode first = new BinaryNode(Operators.POWER);
-      first.setChildren(node.getLeftNode(), power);
-      BinaryNode second = new BinaryNode(Operators.MULTIPLY);
-      second.setChildren(node.getRightNode(), first);
-      BinaryNode result = new BinaryNode(Operators.MULTIPLY);
-      result.setChildren(second, node.getLeftNode().derivative(arg));
-      return result;
+      BinaryNode power = new BinaryNode(MINUS, node.getRightNode(), ConstantNode.ONE);
+      BinaryNode first = new BinaryNode(POWER, node.getLeftNode(), power);
+      BinaryNode second = new BinaryNode(MULTIPLY, node.getRightNode(), first);
+      return new BinaryNode(MULTIPLY, second, node.getLeftNode().derivative(arg));
     }
 
     private AbstractNode complex(BinaryNode node, String arg) {
-      FunctionNode function = new FunctionNode(Functions.LN);
-      function.setChildren(null, node.getLeftNode());
-      BinaryNode first = new BinaryNode(Operators.MULTIPLY);
-      first.setChildren(node.getRightNode().derivative(arg), function);
-      BinaryNode second = new BinaryNode(Operators.DIVIDE);
-      second.setChildren(node.getRightNode(), node.getLeftNode());
-      BinaryNode third = new BinaryNode(Operators.MULTIPLY);
-      third.setChildren(second, node.getLeftNode().derivative(arg));
-      BinaryNode fourth = new BinaryNode(Operators.PLUS);
-      fourth.setChildren(first, third);
-      BinaryNode fifth = new BinaryNode(Operators.POWER);
-      fifth.setChildren(node.getLeftNode(), node.getRightNode());
-      BinaryNode result = new BinaryNode(Operators.MULTIPLY);
-      result.setChildren(fifth, fourth);
-      return result;
+      FunctionNode function = new FunctionNode(Functions.LN, node.getLeftNode());
+      BinaryNode first = new BinaryNode(MULTIPLY, node.getRightNode().derivative(arg), function);
+      BinaryNode second = new BinaryNode(DIVIDE, node.getRightNode(), node.getLeftNode());
+      BinaryNode third = new BinaryNode(MULTIPLY, second, node.getLeftNode().derivative(arg));
+      BinaryNode fourth = new BinaryNode(PLUS, first, third);
+      BinaryNode fifth = new BinaryNode(POWER, node.getLeftNode(), node.getRightNode());
+      return new BinaryNode(MULTIPLY, fifth, fourth);
     }
   }
 }
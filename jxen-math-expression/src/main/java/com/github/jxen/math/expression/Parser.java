@@ -1,11 +1,12 @@
 package com.github.jxen.math.expression;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * {@code Parser} class is responsible for expression parsing.
@@ -15,12 +16,65 @@ import java.util.regex.Pattern;
  */
 public final class Parser {
 
-  private static final int PRIORITY_SHIFT = 4;
+  /**
+   * Maximal depth of parsed expression tree. Parsing itself does not recurse, but evaluation, compilation,
+   * simplification, differentiation and printing walk the tree recursively and would overflow the default thread stack
+   * on deeper trees, so such expressions are rejected. Long flat sums can be written as {@code sum(...)} instead of
+   * operator chains. Trees produced by transformations, e.g. derivatives, are not limited.
+   *
+   * @since Math Expression Parser 1.2
+   */
+  public static final int MAX_DEPTH = 1000;
+
+  private static final int FUNCTION_PRIORITY = MathOperator.HIGH_PRIORITY + 1;
   private static final String OPEN_BRACKET = "(";
   private static final String CLOSED_BRACKET = ")";
+  private static final String COMMA = ",";
+  private static final String SEPARATORS = "+-*/%^(),";
   private final Values values = new Values();
-  private final Functions functions = new Functions();
-  private final Operators operators = new Operators();
+  private final FunctionRegistry registry;
+  private final ExpressionCache cache;
+
+  /**
+   * Initializes parser with default function registry and without expression caching.
+   */
+  public Parser() {
+    this(FunctionRegistry.getDefault(), null);
+  }
+
+  /**
+   * Initializes parser which takes compiled expressions from given cache.
+   *
+   * @param cache cache of compiled expressions, {@code null} disables caching
+   * @since Math Expression Parser 1.2
+   */
+  public Parser(ExpressionCache cache) {
+    this(FunctionRegistry.getDefault(), cache);
+  }
+
+  /**
+   * Initializes parser with given function registry and without expression caching.
+   *
+   * @param registry functions and operators available in expressions
+   * @since Math Expression Parser 1.2
+   */
+  public Parser(FunctionRegistry registry) {
+    this(registry, null);
+  }
+
+  /**
+   * Initializes parser with given function registry which takes compiled expressions from given cache. Expressions
+   * cached by parsers with different registries do not interfere. Cache is looked up by lower cased source text, see
+   * {@link ExpressionCache}.
+   *
+   * @param registry functions and operators available in expressions
+   * @param cache    cache of compiled expressions, {@code null} disables caching
+   * @since Math Expression Parser 1.2
+   */
+  public Parser(FunctionRegistry registry, ExpressionCache cache) {
+    this.registry = Objects.requireNonNull(registry);
+    this.cache = cache;
+  }
 
   /**
    * Compiles given string into {@link Expression}.
@@ -28,6 +82,7 @@ public final class Parser {
    * @param expression string expression
    * @param variables  variables
    * @return compiled expression
+   * @throws ExpressionException if expression is malformed or its tree is deeper than {@link #MAX_DEPTH}
    */
   public Expression compile(String expression, Iterable<String> variables) {
     values.setVariables(variables);
@@ -39,103 +94,181 @@ public final class Parser {
    *
    * @param expression string expression
    * @return compiled expression
+   * @throws ExpressionException if expression is malformed or its tree is deeper than {@link #MAX_DEPTH}
    */
   public Expression compile(String expression) {
     if (Objects.isNull(expression) || expression.isEmpty()) {
       throw new ExpressionException("Empty Expression", 0, 0);
     }
-    List<Token> tokens = getTokens(expression.toLowerCase(Locale.getDefault()));
-    int brackets = 0;
+    String source = expression.toLowerCase(Locale.getDefault());
+    if (Objects.isNull(cache)) {
+      return parse(source);
+    }
+    return cache.get(registry, source, values.getVariables(), () -> parse(source));
+  }
+
+  private Expression parse(String expression) {
+    List<Token> tokens = getTokens(expression);
+    if (tokens.isEmpty()) {
+      throw new ExpressionException("Empty Expression", 0, 0);
+    }
+    Deque<AbstractNode> operands = new ArrayDeque<>();
+    Deque<Token> pending = new ArrayDeque<>();
+    boolean operandExpected = true;
+    Token previous = null;
     for (Token token : tokens) {
       if (token.getValue().equals(OPEN_BRACKET)) {
-        brackets++;
+        if (!operandExpected) {
+          throw new ExpressionException("Unexpected bracket", token.getPosition(), 1);
+        }
+        if (Objects.nonNull(previous) && previous == pending.peek() && previous.getPriority() == FUNCTION_PRIORITY) {
+          token.setFunction(previous);
+        }
+        pending.push(token);
+      } else if (token.getValue().equals(COMMA)) {
+        if (operandExpected) {
+          throw Objects.isNull(previous) ? unexpectedComma(token) : missingOperand(previous, token);
+        }
+        reduce(operands, pending, Integer.MIN_VALUE);
+        if (pending.isEmpty() || Objects.isNull(pending.peek().getFunction())) {
+          throw unexpectedComma(token);
+        }
+        pending.peek().getFunction().addArgument();
+        operandExpected = true;
       } else if (token.getValue().equals(CLOSED_BRACKET)) {
-        brackets--;
-        if (brackets < 0) {
+        if (Objects.isNull(previous)) {
+          throw new ExpressionException("Unexpected bracket", token.getPosition(), 1);
+        }
+        if (operandExpected) {
+          throw missingOperand(previous, token);
+        }
+        reduce(operands, pending, Integer.MIN_VALUE);
+        if (pending.isEmpty()) {
           throw new ExpressionException("Unexpected bracket", token.getPosition(), 1);
         }
+        pending.pop();
       } else {
-        processToken(token, brackets);
+        operandExpected = processToken(token, previous, operandExpected, operands, pending);
       }
+      previous = token;
     }
-    if (brackets > 0) {
-      throw new ExpressionException("No expected bracket", 0, 0);
+    if (operandExpected) {
+      throw missingOperand(previous, null);
     }
-    return new Expression(createNode(tokens, 0, tokens.size() - 1));
+    reduce(operands, pending, Integer.MIN_VALUE);
+    if (!pending.isEmpty()) {
+      throw new ExpressionException("No expected bracket", pending.peek().getPosition(), 1);
+    }
+    return new Expression(operands.pop());
   }
 
-  private void processToken(Token token, int brackets) {
-    AbstractNode node = operators.getNode(token);
-    if (Objects.nonNull(node)) {
-      token.setPriority(((BinaryNode) node).getPriority() + PRIORITY_SHIFT * brackets);
-      token.setNode(node);
-    } else {
-      node = functions.getNode(token);
-      if (Objects.nonNull(node)) {
-        token.setPriority(PRIORITY_SHIFT * (brackets + 1));
-        token.setNode(node);
-      } else {
-        try {
-          token.setNode(values.getNode(token));
-        } catch (NumberFormatException e) {
-          throw new ExpressionException("Unexpected token: " + token.getValue(), token.getPosition(),
-              token.getValue().length(), e);
+  private boolean processToken(Token token, Token previous, boolean operandExpected, Deque<AbstractNode> operands,
+      Deque<Token> pending) {
+    MathOperator operator = registry.getOperator(token.getValue());
+    if (Objects.nonNull(operator)) {
+      if (operandExpected) {
+        if (Objects.nonNull(previous) && !previous.getValue().equals(OPEN_BRACKET)
+            && !previous.getValue().equals(COMMA)) {
+          throw missingOperand(previous, token);
         }
+        if (!operator.isEmptyLeftOperandAllowed()) {
+          throw new ExpressionException("Missing left operand", token.getPosition(), token.getValue().length());
+        }
+        operands.push(ConstantNode.ZERO);
+      } else {
+        reduce(operands, pending, operator.getPriority());
       }
+      token.setPriority(operator.getPriority());
+      token.setFactory(nodes -> {
+        AbstractNode right = nodes.pop();
+        return new BinaryNode(token, operator, nodes.pop(), right);
+      });
+      pending.push(token);
+      return true;
     }
-  }
-
-  private static List<Token> getTokens(String expression) {
-    List<Token> list = new ArrayList<>();
-    int position = 0;
-    while (position < expression.length()) {
-      String current = expression.substring(position);
-      Pattern pattern = Pattern.compile("[+\\-*/%^() ]");
-      Matcher matcher = pattern.matcher(current);
-      if (!matcher.find()) {
-        list.add(new Token(current.trim(), position));
-        return list;
-      }
-      String group = matcher.group().trim();
-      int index = current.indexOf(group);
-      if (index > 0) {
-        list.add(new Token(current.substring(0, index).trim(), position));
-        position += index;
+    MathFunction function = registry.getFunction(token.getValue());
+    if (Objects.nonNull(function)) {
+      if (!operandExpected) {
+        throw new ExpressionException("Unknown function", token.getPosition(), token.getValue().length());
       }
+      token.setPriority(FUNCTION_PRIORITY);
+      token.setFactory(nodes -> {
+        AbstractNode[] arguments = new AbstractNode[token.getArguments()];
+        for (int i = arguments.length - 1; i >= 0; i--) {
+          arguments[i] = nodes.pop();
+        }
+        return new FunctionNode(token, function, Arrays.asList(arguments));
+      });
+      pending.push(token);
+      return true;
+    }
+    if (!operandExpected) {
+      throw new ExpressionException("Unexpected token: " + token.getValue(), token.getPosition(),
+          token.getValue().length());
+    }
+    try {
+      operands.push(values.getNode(token));
+    } catch (NumberFormatException e) {
+      throw new ExpressionException("Unexpected token: " + token.getValue(), token.getPosition(),
+          token.getValue().length(), e);
+    }
+    return false;
+  }
 
-      if (!group.isEmpty()) {
-        list.add(new Token(group.trim(), position));
+  private static void reduce(Deque<AbstractNode> operands, Deque<Token> pending, int priority) {
+    while (!pending.isEmpty() && !pending.peek().getValue().equals(OPEN_BRACKET)
+        && pending.peek().getPriority() >= priority) {
+      Token token = pending.pop();
+      AbstractNode node = token.getFactory().create(operands);
+      if (node.getDepth() > MAX_DEPTH) {
+        throw new ExpressionException("Expression is too deep", token.getPosition(), token.getValue().length());
       }
-      position += group.length();
+      operands.push(node);
     }
-    return list;
   }
 
-  private AbstractNode createNode(List<Token> tokens, int start, int finish) {
-    if (start > finish) {
-      return null;
-    }
-    int begin = start;
-    int end = finish;
-    while (begin < tokens.size() && OPEN_BRACKET.equals(tokens.get(begin).getValue())) {
-      begin++;
-    }
-    while (end > 0 && CLOSED_BRACKET.equals(tokens.get(end).getValue())) {
-      end--;
+  private static ExpressionException missingOperand(Token previous, Token token) {
+    if (previous.getValue().equals(OPEN_BRACKET)) {
+      if (Objects.isNull(token)) {
+        return new ExpressionException("No expected bracket", previous.getPosition(), 1);
+      }
+      int length = token.getPosition() - previous.getPosition() + 1;
+      return new ExpressionException("Empty brackets", previous.getPosition(), length);
     }
-    if (begin > end) {
-      return ConstantNode.ZERO;
+    if (previous.getPriority() == FUNCTION_PRIORITY || previous.getValue().equals(COMMA)) {
+      return new ExpressionException("Missing argument", previous.getPosition(), previous.getValue().length());
     }
-    int minIndex = begin;
-    for (int i = begin + 1; i <= end; ++i) {
-      if (tokens.get(minIndex).getPriority() >= tokens.get(i).getPriority()) {
-        minIndex = i;
+    return new ExpressionException("Missing right operand", previous.getPosition(), previous.getValue().length());
+  }
+
+  private static ExpressionException unexpectedComma(Token token) {
+    return new ExpressionException("Unexpected comma", token.getPosition(), 1);
+  }
+
+  private List<Token> getTokens(String expression) {
+    List<Token> list = new ArrayList<>();
+    int start = -1;
+    for (int position = 0; position < expression.length(); position++) {
+      char c = expression.charAt(position);
+      boolean separator = SEPARATORS.indexOf(c) >= 0 || Character.isWhitespace(c)
+          || !Character.isLetterOrDigit(c) && c != '.' && registry.getOperator(String.valueOf(c)) != null;
+      if (!separator) {
+        if (start < 0) {
+          start = position;
+        }
+        continue;
+      }
+      if (start >= 0) {
+        list.add(new Token(expression.substring(start, position), start));
+        start = -1;
       }
+      if (!Character.isWhitespace(c)) {
+        list.add(new Token(String.valueOf(c), position));
+      }
+    }
+    if (start >= 0) {
+      list.add(new Token(expression.substring(start), start));
     }
-    AbstractNode node = tokens.get(minIndex).getNode();
-    AbstractNode left = createNode(tokens, begin, minIndex - 1);
-    AbstractNode right = createNode(tokens, minIndex + 1, end);
-    node.setChildren(left, right);
-    return node;
+    return list;
   }
 }
@@ -0,0 +1,20 @@
+package com.github.jxen.math.expression;
+
+/**
+ * {@code PartialDerivative} interface represents partial derivatives of function of several arguments.
+ *
+ * @author Denis Murashev
+ * @since Math Expression Parser 1.2
+ */
+@FunctionalInterface
+public interface PartialDerivative {
+
+  /**
+   * Evaluates partial derivative.
+   *
+   * @param args  argument values
+   * @param index index of argument to differentiate by
+   * @return partial derivative value
+   */
+  double derivative(double[] args, int index);
+}
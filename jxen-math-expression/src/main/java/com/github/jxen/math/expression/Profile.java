@@ -0,0 +1,65 @@
+package com.github.jxen.math.expression;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@code Profile} class represents report of instrumented evaluation. Subexpressions are ordered by time spent in
+ * them excluding their operands, most expensive first.
+ *
+ * @author Denis Murashev
+ * @since Math Expression Parser 1.2
+ */
+public final class Profile {
+
+  private final long calls;
+  private final long allocatedBytes;
+  private final List<NodeProfile> nodes;
+
+  Profile(long calls, long allocatedBytes, List<NodeProfile> nodes) {
+    this.calls = calls;
+    this.allocatedBytes = allocatedBytes;
+    this.nodes = Collections.unmodifiableList(nodes);
+  }
+
+  /**
+   * Provides number of evaluations of the whole expression.
+   *
+   * @return number of calls
+   */
+  public long getCalls() {
+    return calls;
+  }
+
+  /**
+   * Provides average number of bytes allocated by evaluating thread per call.
+   *
+   * @return allocated bytes per call, -1 if not supported by virtual machine
+   */
+  public double getAllocatedBytes() {
+    if (allocatedBytes < 0) {
+      return -1;
+    }
+    return calls == 0 ? 0 : (double) allocatedBytes / calls;
+  }
+
+  /**
+   * Provides statistics of instrumented subexpressions.
+   *
+   * @return subexpression profiles
+   */
+  public List<NodeProfile> getNodes() {
+    return nodes;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder(String.format("calls: %d, allocated bytes per call: %.1f%n", calls,
+        getAllocatedBytes()));
+    builder.append(String.format("%6s %12s %12s %12s  %s%n", "pos", "count", "total ns", "self ns", "expression"));
+    for (NodeProfile node : nodes) {
+      builder.append(node).append(String.format("%n"));
+    }
+    return builder.toString();
+  }
+}
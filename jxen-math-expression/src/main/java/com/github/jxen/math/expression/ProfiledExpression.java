@@ -0,0 +1,97 @@
+package com.github.jxen.math.expression;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@code ProfiledExpression} class represents expression compiled into evaluator with positional arguments, which
+ * counts evaluations and time spent in each operator and function. Instrumentation exists only in evaluators created
+ * by {@link Expression#profile(String...)}, other evaluators are not affected. Profiled expression keeps state between
+ * calls, so it is not safe to use from multiple threads.
+ *
+ * @author Denis Murashev
+ * @since Math Expression Parser 1.2
+ */
+public final class ProfiledExpression {
+
+  private final List<String> variables;
+  private final Evaluator evaluator;
+  private final int frameSize;
+  private final Profiler profiler;
+  private final boolean measured;
+  private long calls;
+  private long allocatedBytes;
+
+  ProfiledExpression(List<String> variables, Evaluator evaluator, int frameSize, Profiler profiler) {
+    this.variables = Collections.unmodifiableList(variables);
+    this.evaluator = evaluator;
+    this.frameSize = frameSize;
+    this.profiler = profiler;
+    this.measured = AllocationProbe.isSupported();
+  }
+
+  /**
+   * Evaluates expression recording statistics.
+   *
+   * @param args argument values in order of {@link #getVariables()}
+   * @return evaluated expression
+   */
+  public double applyAsDouble(double... args) {
+    return evaluateFrame(frameSize > variables.size() ? Arrays.copyOf(args, frameSize) : args);
+  }
+
+  /**
+   * Evaluates expression in caller-owned frame recording statistics. Arguments occupy first positions of the frame,
+   * remaining positions are overwritten with values of shared subexpressions.
+   *
+   * @param frame argument values in order of {@link #getVariables()} followed by working space, at least
+   *              {@link #getFrameSize()} long
+   * @return evaluated expression
+   */
+  public double evaluateFrame(double[] frame) {
+    long before = measured ? AllocationProbe.allocatedBytes() : 0;
+    double value = evaluator.evaluate(frame);
+    if (measured) {
+      allocatedBytes += AllocationProbe.allocatedBytes() - before;
+    }
+    calls++;
+    return value;
+  }
+
+  /**
+   * Provides minimal length of frame accepted by {@link #evaluateFrame(double[])}.
+   *
+   * @return number of variables plus number of shared subexpressions
+   */
+  public int getFrameSize() {
+    return frameSize;
+  }
+
+  /**
+   * Provides statistics collected since creation or last reset.
+   *
+   * @return profile
+   */
+  public Profile getProfile() {
+    return new Profile(calls, measured ? allocatedBytes : -1, profiler.snapshot());
+  }
+
+  /**
+   * Clears collected statistics.
+   */
+  public void reset() {
+    calls = 0;
+    allocatedBytes = 0;
+    profiler.reset();
+  }
+
+  /**
+   * Provides variables bound to positional arguments.
+   *
+   * @return variable names
+   */
+  public List<String> getVariables() {
+    return variables;
+  }
+}
@@ -0,0 +1,39 @@
+package com.github.jxen.math.expression;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+final class Profiler {
+
+  private final Map<AbstractNode, NodeProfile> nodes = new IdentityHashMap<>();
+  private long nested;
+
+  Evaluator instrument(AbstractNode node, Evaluator evaluator) {
+    NodeProfile profile = nodes.computeIfAbsent(node, k -> new NodeProfile(k.toString(), k.getPosition()));
+    return args -> {
+      long outer = nested;
+      nested = 0;
+      long start = System.nanoTime();
+      double value = evaluator.evaluate(args);
+      long elapsed = System.nanoTime() - start;
+      profile.record(elapsed, elapsed - nested);
+      nested = outer + elapsed;
+      return value;
+    };
+  }
+
+  List<NodeProfile> snapshot() {
+    List<NodeProfile> result = new ArrayList<>(nodes.size());
+    for (NodeProfile profile : nodes.values()) {
+      result.add(profile.copy());
+    }
+    result.sort((first, second) -> Long.compare(second.getSelfNanos(), first.getSelfNanos()));
+    return result;
+  }
+
+  void reset() {
+    nodes.values().forEach(NodeProfile::reset);
+  }
+}
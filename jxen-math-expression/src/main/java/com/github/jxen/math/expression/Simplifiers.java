@@ -1,6 +1,9 @@
 package com.github.jxen.math.expression;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 final class Simplifiers {
@@ -8,9 +11,13 @@ final class Simplifiers {
   private static final Map<MathOperator, SimplifyRule> SIMPLIFIER_RULES = new HashMap<>();
 
   static {
-    SIMPLIFIER_RULES.put(Operators.PLUS, new PlusSimplifier());
-    SIMPLIFIER_RULES.put(Operators.MINUS, new MinusSimplifier());
-    SIMPLIFIER_RULES.put(Operators.MULTIPLY, new MultiplySimplifier());
+    SimplifyRule sum = new SumSimplifier();
+    SimplifyRule product = node -> new Product(node).build();
+    SIMPLIFIER_RULES.put(Operators.PLUS, sum);
+    SIMPLIFIER_RULES.put(Operators.MINUS, sum);
+    SIMPLIFIER_RULES.put(Operators.MULTIPLY, product);
+    SIMPLIFIER_RULES.put(Operators.DIVIDE, product);
+    SIMPLIFIER_RULES.put(Operators.POWER, new PowerSimplifier());
   }
 
   private Simplifiers() {
@@ -20,53 +27,229 @@ final class Simplifiers {
     return SIMPLIFIER_RULES.get(operator);
   }
 
-  private static class PlusSimplifier implements SimplifyRule {
+  static AbstractNode simplify(FunctionNode node) {
+    MathFunction function = node.getFunction();
+    List<AbstractNode> arguments = node.getArguments();
+    if (function == Functions.IF && arguments.get(0).isConstant()) {
+      return arguments.get(0).evaluate(null) != 0 ? arguments.get(1) : arguments.get(2);
+    }
+    boolean aggregate = function == Functions.MIN || function == Functions.MAX || function == Functions.SUM;
+    if (aggregate && arguments.size() == 1) {
+      return arguments.get(0);
+    }
+    if (function == Functions.POW) {
+      return new BinaryNode(Operators.POWER, arguments.get(0), arguments.get(1)).simplify();
+    }
+    return node;
+  }
 
-    @Override
-    public AbstractNode simplify(BinaryNode node) {
-      AbstractNode left = node.getLeftNode();
-      if (left.getVariables().isEmpty() && left.evaluate(null) == 0) {
-        return node.getRightNode().simplify();
+  static int compare(AbstractNode first, AbstractNode second) {
+    int result = Integer.compare(rank(first), rank(second));
+    if (result != 0 || first == second) {
+      return result;
+    }
+    if (first instanceof ConstantNode) {
+      return Double.compare(((ConstantNode) first).getValue(), ((ConstantNode) second).getValue());
+    }
+    result = first.getName().compareTo(second.getName());
+    if (result != 0) {
+      return result;
+    }
+    List<AbstractNode> children = first.getChildren();
+    List<AbstractNode> others = second.getChildren();
+    for (int i = 0; i < Math.min(children.size(), others.size()); i++) {
+      result = compare(children.get(i), others.get(i));
+      if (result != 0) {
+        return result;
       }
-      AbstractNode right = node.getRightNode();
-      return right.getVariables().isEmpty() && right.evaluate(null) == 0 ? node.getLeftNode().simplify() : node;
     }
+    return Integer.compare(children.size(), others.size());
+  }
+
+  private static int rank(AbstractNode node) {
+    if (node instanceof ConstantNode) {
+      return 0;
+    }
+    if (node instanceof VariableNode) {
+      return 1;
+    }
+    return node instanceof FunctionNode ? 2 : 3;
+  }
+
+  private static boolean isConstant(AbstractNode node, double value) {
+    return node instanceof ConstantNode && ((ConstantNode) node).getValue() == value;
   }
 
-  private static class MinusSimplifier implements SimplifyRule {
+  private static boolean isIntegral(double value) {
+    return value == Math.rint(value) && !Double.isInfinite(value);
+  }
+
+  private static class SumSimplifier implements SimplifyRule {
 
     @Override
     public AbstractNode simplify(BinaryNode node) {
-      AbstractNode right = node.getRightNode();
-      return right.getVariables().isEmpty() && right.evaluate(null) == 0 ? node.getLeftNode().simplify() : node;
+      Map<AbstractNode, Double> terms = new LinkedHashMap<>();
+      terms.put(ConstantNode.ONE, collect(node, 1, terms));
+      List<Map.Entry<AbstractNode, Double>> entries = new ArrayList<>();
+      for (Map.Entry<AbstractNode, Double> entry : terms.entrySet()) {
+        if (entry.getValue() != 0) {
+          entries.add(entry);
+        }
+      }
+      if (entries.isEmpty()) {
+        return ConstantNode.ZERO;
+      }
+      entries.sort((first, second) -> compare(first.getKey(), second.getKey()));
+      if (entries.get(0).getKey() instanceof ConstantNode) {
+        entries.add(entries.remove(0));
+      }
+      int head = 0;
+      while (head < entries.size() && entries.get(head).getValue() < 0) {
+        head++;
+      }
+      Map.Entry<AbstractNode, Double> first = entries.remove(head < entries.size() ? head : 0);
+      AbstractNode result = term(first.getKey(), first.getValue());
+      for (Map.Entry<AbstractNode, Double> entry : entries) {
+        double coefficient = entry.getValue();
+        if (coefficient < 0) {
+          result = new BinaryNode(Operators.MINUS, result, term(entry.getKey(), -coefficient));
+        } else {
+          result = new BinaryNode(Operators.PLUS, result, term(entry.getKey(), coefficient));
+        }
+      }
+      return result;
+    }
+
+    private static AbstractNode term(AbstractNode node, double coefficient) {
+      Product product = new Product(node);
+      if (!isScalable(product.coefficient)) {
+        return coefficient == 1 ? node : new BinaryNode(Operators.MULTIPLY, ConstantNode.of(coefficient), node);
+      }
+      return product.multiply(coefficient).build();
+    }
+
+    private static double collect(AbstractNode node, double sign, Map<AbstractNode, Double> terms) {
+      if (node instanceof ConstantNode) {
+        return sign * ((ConstantNode) node).getValue();
+      }
+      if (node instanceof BinaryNode) {
+        BinaryNode binary = (BinaryNode) node;
+        if (binary.getOperator() == Operators.PLUS) {
+          return collect(binary.getLeftNode(), sign, terms) + collect(binary.getRightNode(), sign, terms);
+        }
+        if (binary.getOperator() == Operators.MINUS) {
+          return collect(binary.getLeftNode(), sign, terms) + collect(binary.getRightNode(), -sign, terms);
+        }
+      }
+      Product product = new Product(node);
+      if (product.factors.isEmpty()) {
+        return sign * product.coefficient;
+      }
+      double coefficient = product.coefficient;
+      if (isScalable(coefficient)) {
+        product.coefficient = 1;
+        terms.merge(product.build(), sign * coefficient, Double::sum);
+      } else {
+        terms.merge(node, sign, Double::sum);
+      }
+      return 0;
+    }
+
+    private static boolean isScalable(double coefficient) {
+      return coefficient != 0 && Double.isFinite(coefficient);
     }
   }
 
-  private static class MultiplySimplifier implements SimplifyRule {
+  private static class PowerSimplifier implements SimplifyRule {
 
     @Override
     public AbstractNode simplify(BinaryNode node) {
-      AbstractNode left = node.getLeftNode();
-      if (left.getVariables().isEmpty()) {
-        double value = left.evaluate(null);
-        if (value == 0) {
-          return new ConstantNode(0);
-        }
-        if (value == 1) {
-          return node.getRightNode().simplify();
+      if (isConstant(node.getLeftNode(), 1) || isConstant(node.getRightNode(), 0)) {
+        return ConstantNode.ONE;
+      }
+      if (isConstant(node.getRightNode(), 1)) {
+        return node.getLeftNode();
+      }
+      return node.getRightNode() instanceof ConstantNode ? new Product(node).build() : node;
+    }
+  }
+
+  private static final class Product {
+
+    private final Map<AbstractNode, Double> factors = new LinkedHashMap<>();
+    private double coefficient = 1;
+
+    Product(AbstractNode node) {
+      collect(node, 1);
+    }
+
+    Product multiply(double value) {
+      coefficient *= value;
+      return this;
+    }
+
+    AbstractNode build() {
+      if (coefficient == 0) {
+        return ConstantNode.ZERO;
+      }
+      List<Map.Entry<AbstractNode, Double>> entries = new ArrayList<>(factors.entrySet());
+      entries.sort((first, second) -> compare(first.getKey(), second.getKey()));
+      AbstractNode numerator = null;
+      AbstractNode denominator = null;
+      for (Map.Entry<AbstractNode, Double> entry : entries) {
+        double exponent = entry.getValue();
+        if (exponent > 0) {
+          numerator = multiply(numerator, power(entry.getKey(), exponent));
+        } else if (exponent < 0) {
+          denominator = multiply(denominator, power(entry.getKey(), -exponent));
         }
       }
-      AbstractNode right = node.getRightNode();
-      if (right.getVariables().isEmpty()) {
-        double value = right.evaluate(null);
-        if (value == 0) {
-          return new ConstantNode(0);
+      if (coefficient != 1 || numerator == null) {
+        numerator = multiply(ConstantNode.of(coefficient), numerator);
+      }
+      return denominator == null ? numerator : new BinaryNode(Operators.DIVIDE, numerator, denominator);
+    }
+
+    private void collect(AbstractNode node, double exponent) {
+      if (node instanceof ConstantNode) {
+        coefficient *= Math.pow(((ConstantNode) node).getValue(), exponent);
+        return;
+      }
+      if (node instanceof BinaryNode) {
+        BinaryNode binary = (BinaryNode) node;
+        MathOperator operator = binary.getOperator();
+        if (operator == Operators.MULTIPLY) {
+          collect(binary.getLeftNode(), exponent);
+          collect(binary.getRightNode(), exponent);
+          return;
+        }
+        if (operator == Operators.DIVIDE) {
+          collect(binary.getLeftNode(), exponent);
+          collect(binary.getRightNode(), -exponent);
+          return;
         }
-        if (value == 1) {
-          return node.getLeftNode().simplify();
+        if (operator == Operators.POWER && binary.getRightNode() instanceof ConstantNode && isIntegral(exponent)) {
+          double power = exponent * ((ConstantNode) binary.getRightNode()).getValue();
+          if (isIntegral(power)) {
+            collect(binary.getLeftNode(), power);
+          } else {
+            factors.merge(binary.getLeftNode(), power, Double::sum);
+          }
+          return;
         }
       }
-      return node;
+      factors.merge(node, exponent, Double::sum);
+    }
+
+    private static AbstractNode power(AbstractNode base, double exponent) {
+      return exponent == 1 ? base : new BinaryNode(Operators.POWER, base, ConstantNode.of(exponent));
+    }
+
+    private static AbstractNode multiply(AbstractNode left, AbstractNode right) {
+      if (left == null) {
+        return right;
+      }
+      return right == null ? left : new BinaryNode(Operators.MULTIPLY, left, right);
     }
   }
 }
@@ -0,0 +1,98 @@
+package com.github.jxen.math.expression;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+final class Tape {
+
+  private final AbstractNode[] nodes;
+  private final int[][] operands;
+
+  Tape(AbstractNode root, Bindings bindings) {
+    List<AbstractNode> order = new ArrayList<>();
+    List<int[]> references = new ArrayList<>();
+    record(root, bindings, new IdentityHashMap<>(), order, references);
+    nodes = order.toArray(new AbstractNode[0]);
+    operands = references.toArray(new int[0][]);
+  }
+
+  int size() {
+    return nodes.length;
+  }
+
+  double gradient(double[] args, double[] gradient) {
+    return gradient(args, gradient, new double[nodes.length], new double[nodes.length]);
+  }
+
+  double gradient(double[] args, double[] gradient, double[] values, double[] adjoints) {
+    for (int i = 0; i < nodes.length; i++) {
+      values[i] = nodes[i].forward(args, values, operands[i]);
+    }
+    Arrays.fill(adjoints, 0, nodes.length, 0);
+    adjoints[nodes.length - 1] = 1;
+    Arrays.fill(gradient, 0);
+    for (int i = nodes.length - 1; i >= 0; i--) {
+      nodes[i].backward(i, values, operands[i], adjoints, gradient);
+    }
+    return values[nodes.length - 1];
+  }
+
+  double[] values(double[] args) {
+    double[] values = new double[nodes.length];
+    for (int i = 0; i < nodes.length; i++) {
+      values[i] = nodes[i].forward(args, values, operands[i]);
+    }
+    return values;
+  }
+
+  int[] dependents(String variable) {
+    return IntStream.range(0, nodes.length).filter(i -> nodes[i].getVariables().contains(variable)).toArray();
+  }
+
+  double update(int[] indices, double[] args, double[] values) {
+    for (int i : indices) {
+      values[i] = nodes[i].forward(args, values, operands[i]);
+    }
+    return values[nodes.length - 1];
+  }
+
+  Dual dual(double[] args, double[] direction) {
+    double[] values = new double[nodes.length];
+    double[] tangents = new double[nodes.length];
+    for (int i = 0; i < nodes.length; i++) {
+      values[i] = nodes[i].forward(args, values, operands[i]);
+      tangents[i] = nodes[i].tangent(i, values, operands[i], tangents, direction);
+    }
+    return new Dual(values[nodes.length - 1], tangents[nodes.length - 1]);
+  }
+
+  private static int record(AbstractNode node, Bindings bindings, Map<AbstractNode, Integer> indices,
+      List<AbstractNode> order, List<int[]> references) {
+    Integer index = indices.get(node);
+    if (index != null) {
+      return index;
+    }
+    AbstractNode recorded = node;
+    int[] operands;
+    if (node.isConstant()) {
+      recorded = node instanceof ConstantNode ? node : new ConstantNode(node.evaluate(null));
+      operands = new int[0];
+    } else if (node instanceof VariableNode) {
+      operands = new int[] {((VariableNode) node).getSlot(bindings)};
+    } else {
+      List<AbstractNode> children = node.getChildren();
+      operands = new int[children.size()];
+      for (int i = 0; i < operands.length; i++) {
+        operands[i] = record(children.get(i), bindings, indices, order, references);
+      }
+    }
+    indices.put(node, order.size());
+    order.add(recorded);
+    references.add(operands);
+    return order.size() - 1;
+  }
+}
@@ -0,0 +1,7 @@
+package com.github.jxen.math.expression;
+
+@FunctionalInterface
+interface TernaryOperator {
+
+  double applyAsDouble(double first, double second, double third);
+}
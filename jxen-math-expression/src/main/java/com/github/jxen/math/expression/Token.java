@@ -5,7 +5,9 @@ class Token {
   private int priority = Integer.MAX_VALUE;
   private final String value;
   private final int position;
-  private AbstractNode node;
+  private NodeFactory factory;
+  private Token function;
+  private int arguments = 1;
 
   Token(String value, int position) {
     this.value = value;
@@ -28,12 +30,28 @@ class Token {
     this.priority = priority;
   }
 
-  AbstractNode getNode() {
-    return node;
+  NodeFactory getFactory() {
+    return factory;
   }
 
-  void setNode(AbstractNode node) {
-    this.node = node;
+  void setFactory(NodeFactory factory) {
+    this.factory = factory;
+  }
+
+  Token getFunction() {
+    return function;
+  }
+
+  void setFunction(Token function) {
+    this.function = function;
+  }
+
+  int getArguments() {
+    return arguments;
+  }
+
+  void addArgument() {
+    arguments++;
   }
 
   @Override
@@ -1,5 +1,9 @@
 package com.github.jxen.math.expression;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
 abstract class ValueNode extends AbstractNode {
 
   ValueNode(Token token) {
@@ -11,14 +15,27 @@ abstract class ValueNode extends AbstractNode {
   }
 
   @Override
-  AbstractNode simplify() {
+  AbstractNode simplify(Map<AbstractNode, AbstractNode> simplified) {
     return this;
   }
 
   @Override
-  void setChildren(AbstractNode left, AbstractNode right) {
-    if (left != null && right != null) {
-      throw new ExpressionException("Unexpected part: ", left.getToken().getPosition(), left.getName().length());
-    }
+  boolean isPure() {
+    return true;
+  }
+
+  @Override
+  List<AbstractNode> getChildren() {
+    return Collections.emptyList();
+  }
+
+  @Override
+  int getDepth() {
+    return 1;
+  }
+
+  @Override
+  long getSize() {
+    return 1;
   }
 }
@@ -27,6 +27,10 @@ final class Values {
     return new ConstantNode(Double.parseDouble(token.getValue()));
   }
 
+  Set<String> getVariables() {
+    return variables;
+  }
+
   void setVariables(Iterable<String> names) {
     for (String n : names) {
       variables.add(n.toLowerCase(Locale.getDefault()));
@@ -1,18 +1,41 @@
 package com.github.jxen.math.expression;
 
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 final class VariableNode extends ValueNode {
 
+  private final Set<String> variables;
+
   VariableNode(Token token) {
     super(token);
+    this.variables = Collections.singleton(getName());
   }
 
   VariableNode(String name) {
     super(name);
+    this.variables = Collections.singleton(getName());
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null) {
+      return false;
+    }
+    if (getClass() != obj.getClass()) {
+      return false;
+    }
+    return getName().equals(((VariableNode) obj).getName());
+  }
+
+  @Override
+  public int hashCode() {
+    return getName().hashCode();
   }
 
   @Override
@@ -20,6 +43,48 @@ final class VariableNode extends ValueNode {
     return arg.get(getName()).doubleValue();
   }
 
+  @Override
+  <T extends Number & Comparable<T>> T evaluate(Map<String, ? extends Number> arg, Arithmetic<T> arithmetic) {
+    return arithmetic.valueOf(arg.get(getName()));
+  }
+
+  @Override
+  Interval evaluateInterval(Map<String, Interval> box) {
+    Interval interval = box.get(getName());
+    if (interval == null) {
+      throw new ExpressionException("Unbound variable: " + getName(), getPosition(), getName().length());
+    }
+    return interval;
+  }
+
+  @Override
+  Evaluator compile(Bindings bindings) {
+    int index = getSlot(bindings);
+    return args -> args[index];
+  }
+
+  @Override
+  BatchEvaluator compileBatch(Bindings bindings, int register) {
+    int index = getSlot(bindings);
+    return (columns, offset, block) -> System.arraycopy(columns[index], offset, block.register(register), 0,
+        block.getLength());
+  }
+
+  @Override
+  double forward(double[] args, double[] values, int[] operands) {
+    return args[operands[0]];
+  }
+
+  @Override
+  double tangent(int index, double[] values, int[] operands, double[] tangents, double[] direction) {
+    return direction[operands[0]];
+  }
+
+  @Override
+  void backward(int index, double[] values, int[] operands, double[] adjoints, double[] gradient) {
+    gradient[operands[0]] += adjoints[index];
+  }
+
   @Override
   AbstractNode derivative(String arg) {
     return getName().equalsIgnoreCase(arg) ? ConstantNode.ONE : ConstantNode.ZERO;
@@ -27,6 +92,19 @@ final class VariableNode extends ValueNode {
 
   @Override
   Set<String> getVariables() {
-    return new HashSet<>(Collections.singletonList(getName()));
+    return variables;
+  }
+
+  @Override
+  AbstractNode intern(Map<List<Object>, AbstractNode> nodes) {
+    return nodes.computeIfAbsent(Collections.singletonList(getName()), k -> this);
+  }
+
+  int getSlot(Bindings bindings) {
+    Integer slot = bindings.getSlot(getName());
+    if (slot == null) {
+      throw new ExpressionException("Unbound variable: " + getName(), getPosition(), getName().length());
+    }
+    return slot;
   }
 }
@@ -0,0 +1,50 @@
+package com.github.jxen.math.expression.integration;
+
+import com.github.jxen.math.expression.CompiledExpression;
+
+final class GaussKronrodRule implements Rule {
+
+  private static final double[] NODES = {
+    0.991455371120812639206854697526329, 0.949107912342758524526189684047851, 0.864864423359769072789712788640926,
+    0.741531185599394439863864773280788, 0.586087235467691130294144845693013, 0.405845151377397166906606412076961,
+    0.207784955007898467600689403773245, 0
+  };
+
+  private static final double[] KRONROD_WEIGHTS = {
+    0.022935322010529224963732008058970, 0.063092092629978553290700663189204, 0.104790010322250183839876322541518,
+    0.140653259715525918745189590510238, 0.169004726639267902826583426598550, 0.190350578064785409913256402421014,
+    0.204432940075298892414161999234649, 0.209482141084727828012999174891714
+  };
+
+  private static final double[] GAUSS_WEIGHTS = {
+    0.129484966168869693270611432679082, 0.279705391489276667901467771423780, 0.381830050505118944950369775488975,
+    0.417959183673469387755102040816327
+  };
+
+  private static final int EVALUATIONS = 15;
+
+  @Override
+  public Integral apply(CompiledExpression integrand, double[] frame, double lower, double upper, double tolerance) {
+    double center = (lower + upper) / 2;
+    double radius = (upper - lower) / 2;
+    double kronrod = 0;
+    double gauss = 0;
+    for (int i = 0; i < NODES.length; i++) {
+      double sum = evaluate(integrand, frame, center - radius * NODES[i]);
+      if (NODES[i] != 0) {
+        sum += evaluate(integrand, frame, center + radius * NODES[i]);
+      }
+      kronrod += KRONROD_WEIGHTS[i] * sum;
+      if (i % 2 == 1) {
+        gauss += GAUSS_WEIGHTS[i / 2] * sum;
+      }
+    }
+    double error = Math.abs((kronrod - gauss) * radius);
+    return new Integral(kronrod * radius, error, EVALUATIONS, 1, error <= tolerance);
+  }
+
+  private static double evaluate(CompiledExpression integrand, double[] frame, double x) {
+    frame[0] = x;
+    return integrand.evaluateFrame(frame);
+  }
+}
@@ -0,0 +1,80 @@
+package com.github.jxen.math.expression.integration;
+
+/**
+ * {@code Integral} class represents result of numerical integration together with its error estimate and cost.
+ *
+ * @author Denis Murashev
+ * @since Math Expression Parser 1.2
+ */
+public final class Integral {
+
+  private final double value;
+  private final double error;
+  private final long evaluations;
+  private final int intervals;
+  private final boolean converged;
+
+  Integral(double value, double error, long evaluations, int intervals, boolean converged) {
+    this.value = value;
+    this.error = error;
+    this.evaluations = evaluations;
+    this.intervals = intervals;
+    this.converged = converged;
+  }
+
+  /**
+   * Provides approximate value of integral.
+   *
+   * @return integral value
+   */
+  public double getValue() {
+    return value;
+  }
+
+  /**
+   * Provides estimate of absolute error.
+   *
+   * @return error estimate
+   */
+  public double getError() {
+    return error;
+  }
+
+  /**
+   * Provides number of integrand evaluations.
+   *
+   * @return number of evaluations
+   */
+  public long getEvaluations() {
+    return evaluations;
+  }
+
+  /**
+   * Provides number of subintervals the domain was split into.
+   *
+   * @return number of subintervals
+   */
+  public int getIntervals() {
+    return intervals;
+  }
+
+  /**
+   * Checks if requested tolerance was reached.
+   *
+   * @return {@code true} if error estimate of every subinterval is within its share of tolerance
+   */
+  public boolean isConverged() {
+    return converged;
+  }
+
+  Integral plus(Integral other) {
+    return new Integral(value + other.value, error + other.error, evaluations + other.evaluations,
+        intervals + other.intervals, converged && other.converged);
+  }
+
+  @Override
+  public String toString() {
+    return "Integral{value=" + value + ", error=" + error + ", evaluations=" + evaluations + ", intervals="
+        + intervals + ", converged=" + converged + '}';
+  }
+}
@@ -0,0 +1,61 @@
+package com.github.jxen.math.expression.integration;
+
+import com.github.jxen.math.expression.CompiledExpression;
+import java.util.concurrent.RecursiveTask;
+
+final class IntegrationTask extends RecursiveTask<Integral> {
+
+  private static final long serialVersionUID = 7215730866514402215L;
+  private static final int FORK_LEVELS = 8;
+
+  private final transient Rule rule;
+  private final transient CompiledExpression integrand;
+  private final double lower;
+  private final double upper;
+  private final double tolerance;
+  private final int depth;
+  private final int forks;
+
+  IntegrationTask(Rule rule, CompiledExpression integrand, double lower, double upper, double tolerance, int depth,
+      boolean parallel) {
+    this(rule, integrand, lower, upper, tolerance, depth, parallel ? FORK_LEVELS : 0);
+  }
+
+  private IntegrationTask(Rule rule, CompiledExpression integrand, double lower, double upper, double tolerance,
+      int depth, int forks) {
+    this.rule = rule;
+    this.integrand = integrand;
+    this.lower = lower;
+    this.upper = upper;
+    this.tolerance = tolerance;
+    this.depth = depth;
+    this.forks = forks;
+  }
+
+  @Override
+  protected Integral compute() {
+    return integrate(new double[integrand.getFrameSize()], lower, upper, tolerance, depth);
+  }
+
+  private Integral integrate(double[] frame, double a, double b, double localTolerance, int levels) {
+    Integral whole = rule.apply(integrand, frame, a, b, localTolerance);
+    double middle = (a + b) / 2;
+    if (whole.isConverged() || levels == 0 || middle <= a || middle >= b) {
+      return whole;
+    }
+    double half = localTolerance / 2;
+    int levelsBelow = depth - levels + 1;
+    if (levelsBelow <= forks) {
+      IntegrationTask left = new IntegrationTask(rule, integrand, a, middle, half, levels - 1, forks);
+      left.fork();
+      Integral right = new IntegrationTask(rule, integrand, middle, b, half, levels - 1, forks).compute();
+      return left.join().plus(right).plus(cost(whole));
+    }
+    Integral left = integrate(frame, a, middle, half, levels - 1);
+    return left.plus(integrate(frame, middle, b, half, levels - 1)).plus(cost(whole));
+  }
+
+  private static Integral cost(Integral estimate) {
+    return new Integral(0, 0, estimate.getEvaluations(), 0, true);
+  }
+}
@@ -0,0 +1,119 @@
+package com.github.jxen.math.expression.integration;
+
+import com.github.jxen.math.expression.CompiledExpression;
+import com.github.jxen.math.expression.Expression;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * {@code Integrator} class calculates definite integrals of expressions of one variable. Integrand is compiled into
+ * evaluator with positional argument once per call. Domain is bisected adaptively until error estimate of each
+ * subinterval is within its share of tolerance, subintervals can be integrated in parallel. Only first 8 levels of
+ * bisection are split between workers, deeper subintervals are integrated sequentially by worker owning them.
+ *
+ * @author Denis Murashev
+ * @since Math Expression Parser 1.2
+ */
+public final class Integrator {
+
+  private static final double DEFAULT_TOLERANCE = 1e-10;
+  private static final int DEFAULT_DEPTH = 30;
+  private static final Rule GAUSS_KRONROD = new GaussKronrodRule();
+  private static final Rule SIMPSON = new SimpsonRule();
+
+  private final double tolerance;
+  private final int maxDepth;
+
+  /**
+   * Initializes with default absolute tolerance 1e-10 and at most 30 levels of bisection.
+   */
+  public Integrator() {
+    this(DEFAULT_TOLERANCE, DEFAULT_DEPTH);
+  }
+
+  /**
+   * Initializes with given settings.
+   *
+   * @param tolerance absolute tolerance of integral
+   * @param maxDepth  maximal number of levels of bisection
+   */
+  public Integrator(double tolerance, int maxDepth) {
+    this.tolerance = tolerance;
+    this.maxDepth = maxDepth;
+  }
+
+  /**
+   * Integrates with adaptive 15-point Gauss-Kronrod rule, error is estimated by embedded 7-point Gauss rule.
+   *
+   * @param expression expression of single variable
+   * @param variable   integration variable
+   * @param lower      lower bound
+   * @param upper      upper bound
+   * @return integral
+   * @throws com.github.jxen.math.expression.ExpressionException if expression has other variables
+   */
+  public Integral gaussKronrod(Expression expression, String variable, double lower, double upper) {
+    return integrate(GAUSS_KRONROD, expression, variable, lower, upper, null);
+  }
+
+  /**
+   * Integrates with adaptive 15-point Gauss-Kronrod rule splitting subintervals between workers of given pool.
+   *
+   * @param expression expression of single variable
+   * @param variable   integration variable
+   * @param lower      lower bound
+   * @param upper      upper bound
+   * @param pool       pool to run integration in
+   * @return integral
+   * @throws com.github.jxen.math.expression.ExpressionException if expression has other variables
+   */
+  public Integral gaussKronrod(Expression expression, String variable, double lower, double upper,
+      ForkJoinPool pool) {
+    return integrate(GAUSS_KRONROD, expression, variable, lower, upper, pool);
+  }
+
+  /**
+   * Integrates with adaptive Simpson rule, error is estimated by Richardson extrapolation.
+   *
+   * @param expression expression of single variable
+   * @param variable   integration variable
+   * @param lower      lower bound
+   * @param upper      upper bound
+   * @return integral
+   * @throws com.github.jxen.math.expression.ExpressionException if expression has other variables
+   */
+  public Integral simpson(Expression expression, String variable, double lower, double upper) {
+    return integrate(SIMPSON, expression, variable, lower, upper, null);
+  }
+
+  /**
+   * Integrates with adaptive Simpson rule splitting subintervals between workers of given pool.
+   *
+   * @param expression expression of single variable
+   * @param variable   integration variable
+   * @param lower      lower bound
+   * @param upper      upper bound
+   * @param pool       pool to run integration in
+   * @return integral
+   * @throws com.github.jxen.math.expression.ExpressionException if expression has other variables
+   */
+  public Integral simpson(Expression expression, String variable, double lower, double upper, ForkJoinPool pool) {
+    return integrate(SIMPSON, expression, variable, lower, upper, pool);
+  }
+
+  private Integral integrate(Rule rule, Expression expression, String variable, double lower, double upper,
+      ForkJoinPool pool) {
+    if (Double.isInfinite(lower) || Double.isInfinite(upper) || Double.isNaN(lower) || Double.isNaN(upper)) {
+      throw new IllegalArgumentException("Bounds must be finite");
+    }
+    if (lower > upper) {
+      Integral integral = integrate(rule, expression, variable, upper, lower, pool);
+      return new Integral(-integral.getValue(), integral.getError(), integral.getEvaluations(),
+          integral.getIntervals(), integral.isConverged());
+    }
+    CompiledExpression integrand = expression.bind(variable);
+    if (pool == null) {
+      return new IntegrationTask(rule, integrand, lower, upper, tolerance, maxDepth, false).compute();
+    }
+    return pool.invoke(new IntegrationTask(rule, integrand, lower, upper, tolerance, maxDepth, true));
+  }
+}
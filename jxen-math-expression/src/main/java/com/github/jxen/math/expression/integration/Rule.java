@@ -0,0 +1,9 @@
+package com.github.jxen.math.expression.integration;
+
+import com.github.jxen.math.expression.CompiledExpression;
+
+@FunctionalInterface
+interface Rule {
+
+  Integral apply(CompiledExpression integrand, double[] frame, double lower, double upper, double tolerance);
+}
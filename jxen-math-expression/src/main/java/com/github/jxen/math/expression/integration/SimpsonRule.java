@@ -0,0 +1,32 @@
+package com.github.jxen.math.expression.integration;
+
+import com.github.jxen.math.expression.CompiledExpression;
+
+final class SimpsonRule implements Rule {
+
+  private static final int EVALUATIONS = 5;
+  private static final double RICHARDSON = 15;
+  private static final double FOUR = 4;
+  private static final double SIX = 6;
+  private static final double TWELVE = 12;
+
+  @Override
+  public Integral apply(CompiledExpression integrand, double[] frame, double lower, double upper, double tolerance) {
+    double width = upper - lower;
+    double first = evaluate(integrand, frame, lower);
+    double second = evaluate(integrand, frame, lower + width / FOUR);
+    double middle = evaluate(integrand, frame, lower + width / 2);
+    double third = evaluate(integrand, frame, upper - width / FOUR);
+    double last = evaluate(integrand, frame, upper);
+    double coarse = width / SIX * (first + FOUR * middle + last);
+    double fine = width / TWELVE * (first + FOUR * second + 2 * middle + FOUR * third + last);
+    double difference = (fine - coarse) / RICHARDSON;
+    double error = Math.abs(difference);
+    return new Integral(fine + difference, error, EVALUATIONS, 1, error <= tolerance);
+  }
+
+  private static double evaluate(CompiledExpression integrand, double[] frame, double x) {
+    frame[0] = x;
+    return integrand.evaluateFrame(frame);
+  }
+}
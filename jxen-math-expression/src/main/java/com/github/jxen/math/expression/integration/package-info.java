@@ -0,0 +1,4 @@
+/**
+ * Numerical Integration of Math Expressions.
+ */
+package com.github.jxen.math.expression.integration;
@@ -0,0 +1,258 @@
+package com.github.jxen.math.expression.solver;
+
+import com.github.jxen.math.expression.CompiledExpression;
+
+/**
+ * {@code Minimizer} class finds local minimum of compiled expression of several variables. Working arrays are
+ * allocated once per call, iterations do not allocate.
+ *
+ * @author Denis Murashev
+ * @since Math Expression Parser 1.2
+ */
+public final class Minimizer {
+
+  private static final double DEFAULT_TOLERANCE = 1e-10;
+  private static final int DEFAULT_ITERATIONS = 1000;
+  private static final double HALF = 0.5;
+  private static final double ARMIJO = 1e-4;
+  private static final double MIN_STEP = 1e-20;
+
+  private final double tolerance;
+  private final int maxIterations;
+
+  /**
+   * Initializes with default tolerance 1e-10 and limit of 1000 iterations.
+   */
+  public Minimizer() {
+    this(DEFAULT_TOLERANCE, DEFAULT_ITERATIONS);
+  }
+
+  /**
+   * Initializes with given settings.
+   *
+   * @param tolerance     tolerance of function values for Nelder-Mead method and of gradient for BFGS method
+   * @param maxIterations iteration limit
+   */
+  public Minimizer(double tolerance, int maxIterations) {
+    this.tolerance = tolerance;
+    this.maxIterations = maxIterations;
+  }
+
+  /**
+   * Finds minimum with Nelder-Mead simplex method, which needs no derivatives.
+   *
+   * @param expression compiled expression
+   * @param start      initial point in order of {@link CompiledExpression#getVariables()}
+   * @param step       size of initial simplex
+   * @return solution
+   * @throws IllegalArgumentException if number of coordinates of initial point does not match number of variables
+   */
+  public Solution nelderMead(CompiledExpression expression, double[] start, double step) {
+    int n = checkDimension(expression, start);
+    double[][] simplex = new double[n + 1][];
+    double[] values = new double[n + 1];
+    double[] frame = new double[expression.getFrameSize()];
+    for (int i = 0; i <= n; i++) {
+      simplex[i] = start.clone();
+      if (i > 0) {
+        simplex[i][i - 1] += step;
+      }
+      values[i] = evaluate(expression, simplex[i], frame);
+    }
+    int evaluations = n + 1;
+    double[] centroid = new double[n];
+    double[] reflected = new double[n];
+    double[] trial = new double[n];
+    int iteration = 0;
+    int best = 0;
+    boolean converged = false;
+    while (iteration < maxIterations) {
+      best = 0;
+      int worst = 0;
+      for (int i = 1; i <= n; i++) {
+        best = values[i] < values[best] ? i : best;
+        worst = values[i] > values[worst] ? i : worst;
+      }
+      int second = best;
+      for (int i = 0; i <= n; i++) {
+        second = i != worst && values[i] > values[second] ? i : second;
+      }
+      if (Math.abs(values[worst] - values[best]) <= tolerance) {
+        converged = true;
+        break;
+      }
+      iteration++;
+      for (int j = 0; j < n; j++) {
+        double sum = 0;
+        for (int i = 0; i <= n; i++) {
+          sum += i == worst ? 0 : simplex[i][j];
+        }
+        centroid[j] = sum / n;
+      }
+      double reflection = move(expression, centroid, simplex[worst], -1, reflected, frame);
+      evaluations++;
+      if (reflection < values[best]) {
+        double expansion = move(expression, centroid, simplex[worst], -2, trial, frame);
+        evaluations++;
+        if (expansion < reflection) {
+          accept(simplex, values, worst, trial, expansion);
+        } else {
+          accept(simplex, values, worst, reflected, reflection);
+        }
+      } else if (reflection < values[second]) {
+        accept(simplex, values, worst, reflected, reflection);
+      } else {
+        double contraction = reflection < values[worst]
+            ? move(expression, centroid, reflected, HALF, trial, frame)
+            : move(expression, centroid, simplex[worst], HALF, trial, frame);
+        evaluations++;
+        if (contraction < Math.min(reflection, values[worst])) {
+          accept(simplex, values, worst, trial, contraction);
+        } else {
+          for (int i = 0; i <= n; i++) {
+            if (i != best) {
+              for (int j = 0; j < n; j++) {
+                simplex[i][j] = simplex[best][j] + HALF * (simplex[i][j] - simplex[best][j]);
+              }
+              values[i] = evaluate(expression, simplex[i], frame);
+              evaluations++;
+            }
+          }
+        }
+      }
+    }
+    for (int i = 0; i <= n; i++) {
+      best = values[i] < values[best] ? i : best;
+    }
+    return new Solution(simplex[best], values[best], iteration, evaluations, converged);
+  }
+
+  /**
+   * Finds minimum with BFGS quasi-Newton method. Gradient is calculated together with value by reverse mode automatic
+   * differentiation, step length is chosen by backtracking line search.
+   *
+   * @param expression compiled expression
+   * @param start      initial point in order of {@link CompiledExpression#getVariables()}
+   * @return solution
+   * @throws IllegalArgumentException if number of coordinates of initial point does not match number of variables
+   * @throws com.github.jxen.math.expression.ExpressionException if expression has no derivative
+   */
+  public Solution bfgs(CompiledExpression expression, double[] start) {
+    int n = checkDimension(expression, start);
+    double[] point = start.clone();
+    double[] gradient = new double[n];
+    double[] next = new double[n];
+    double[] nextGradient = new double[n];
+    double[] direction = new double[n];
+    double[] product = new double[n];
+    double[][] inverse = new double[n][n];
+    double[] values = new double[expression.getTapeSize()];
+    double[] adjoints = new double[values.length];
+    reset(inverse);
+    double value = expression.evaluateGradient(point, gradient, values, adjoints);
+    int evaluations = 1;
+    int iteration = 0;
+    boolean converged = norm(gradient) <= tolerance;
+    while (!converged && iteration < maxIterations) {
+      multiply(inverse, gradient, direction);
+      double slope = -dot(gradient, direction);
+      if (slope >= 0) {
+        reset(inverse);
+        System.arraycopy(gradient, 0, direction, 0, n);
+        slope = -dot(gradient, gradient);
+      }
+      double step = 1;
+      double nextValue = probe(expression, point, direction, step, next, nextGradient, values, adjoints);
+      evaluations++;
+      while (!(nextValue <= value + ARMIJO * step * slope) && step > MIN_STEP) {
+        step *= HALF;
+        nextValue = probe(expression, point, direction, step, next, nextGradient, values, adjoints);
+        evaluations++;
+      }
+      if (!(nextValue <= value + ARMIJO * step * slope)) {
+        break;
+      }
+      iteration++;
+      for (int i = 0; i < n; i++) {
+        next[i] -= point[i];
+        nextGradient[i] -= gradient[i];
+      }
+      double curvature = dot(next, nextGradient);
+      if (curvature > 0) {
+        multiply(inverse, nextGradient, product);
+        double scale = (curvature + dot(nextGradient, product)) / (curvature * curvature);
+        for (int i = 0; i < n; i++) {
+          for (int j = 0; j < n; j++) {
+            inverse[i][j] += scale * next[i] * next[j] - (product[i] * next[j] + next[i] * product[j]) / curvature;
+          }
+        }
+      }
+      for (int i = 0; i < n; i++) {
+        point[i] += next[i];
+        gradient[i] += nextGradient[i];
+      }
+      value = nextValue;
+      converged = norm(gradient) <= tolerance;
+    }
+    return new Solution(point, value, iteration, evaluations, converged);
+  }
+
+  private static int checkDimension(CompiledExpression expression, double[] start) {
+    if (start.length != expression.getVariables().size()) {
+      throw new IllegalArgumentException("Wrong number of coordinates: " + start.length);
+    }
+    return start.length;
+  }
+
+  private static double evaluate(CompiledExpression expression, double[] point, double[] frame) {
+    System.arraycopy(point, 0, frame, 0, point.length);
+    return expression.evaluateFrame(frame);
+  }
+
+  private static double move(CompiledExpression expression, double[] centroid, double[] vertex, double factor,
+      double[] out, double[] frame) {
+    for (int j = 0; j < out.length; j++) {
+      out[j] = centroid[j] + factor * (vertex[j] - centroid[j]);
+    }
+    return evaluate(expression, out, frame);
+  }
+
+  private static double probe(CompiledExpression expression, double[] point, double[] direction, double step,
+      double[] out, double[] gradient, double[] values, double[] adjoints) {
+    for (int i = 0; i < out.length; i++) {
+      out[i] = point[i] - step * direction[i];
+    }
+    return expression.evaluateGradient(out, gradient, values, adjoints);
+  }
+
+  private static void accept(double[][] simplex, double[] values, int index, double[] vertex, double value) {
+    System.arraycopy(vertex, 0, simplex[index], 0, vertex.length);
+    values[index] = value;
+  }
+
+  private static void reset(double[][] matrix) {
+    for (int i = 0; i < matrix.length; i++) {
+      for (int j = 0; j < matrix.length; j++) {
+        matrix[i][j] = i == j ? 1 : 0;
+      }
+    }
+  }
+
+  private static void multiply(double[][] matrix, double[] vector, double[] out) {
+    for (int i = 0; i < out.length; i++) {
+      out[i] = dot(matrix[i], vector);
+    }
+  }
+
+  private static double dot(double[] first, double[] second) {
+    double result = 0;
+    for (int i = 0; i < first.length; i++) {
+      result += first[i] * second[i];
+    }
+    return result;
+  }
+
+  private static double norm(double[] vector) {
+    return Math.sqrt(dot(vector, vector));
+  }
+}
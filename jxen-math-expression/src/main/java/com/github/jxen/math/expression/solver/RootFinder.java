@@ -0,0 +1,196 @@
+package com.github.jxen.math.expression.solver;
+
+import com.github.jxen.math.expression.CompiledExpression;
+import com.github.jxen.math.expression.Expression;
+import com.github.jxen.math.expression.Interval;
+
+/**
+ * {@code RootFinder} class solves equations f(x)=0 of one variable. Expression is compiled once per call and evaluation
+ * frame is reused between iterations.
+ *
+ * @author Denis Murashev
+ * @since Math Expression Parser 1.2
+ */
+public final class RootFinder {
+
+  private static final double DEFAULT_TOLERANCE = 1e-12;
+  private static final int DEFAULT_ITERATIONS = 100;
+  private static final double GROWTH = 1.6;
+  private static final double HALF = 0.5;
+  private static final double THREE = 3;
+
+  private final double tolerance;
+  private final int maxIterations;
+
+  /**
+   * Initializes with default tolerance 1e-12 and limit of 100 iterations.
+   */
+  public RootFinder() {
+    this(DEFAULT_TOLERANCE, DEFAULT_ITERATIONS);
+  }
+
+  /**
+   * Initializes with given settings.
+   *
+   * @param tolerance     absolute tolerance of root
+   * @param maxIterations iteration limit
+   */
+  public RootFinder(double tolerance, int maxIterations) {
+    this.tolerance = tolerance;
+    this.maxIterations = maxIterations;
+  }
+
+  /**
+   * Finds root with Newton method using symbolic derivative of expression.
+   *
+   * @param expression expression of single variable
+   * @param variable   variable name
+   * @param guess      initial guess
+   * @return solution, not converged if derivative vanishes or iteration limit is reached
+   * @throws com.github.jxen.math.expression.ExpressionException if expression has other variables or no derivative
+   */
+  public Solution newton(Expression expression, String variable, double guess) {
+    CompiledExpression function = expression.bind(variable);
+    CompiledExpression derivative = expression.derivative(variable).bind(variable);
+    double[] arg = new double[function.getFrameSize()];
+    double[] slopeArg = new double[derivative.getFrameSize()];
+    double x = guess;
+    double value = evaluate(function, arg, x);
+    int evaluations = 1;
+    int iteration = 0;
+    boolean converged = Math.abs(value) <= tolerance;
+    while (!converged && iteration < maxIterations) {
+      double slope = evaluate(derivative, slopeArg, x);
+      evaluations++;
+      if (slope == 0 || Double.isNaN(slope)) {
+        break;
+      }
+      double step = value / slope;
+      x -= step;
+      value = evaluate(function, arg, x);
+      evaluations++;
+      iteration++;
+      converged = Math.abs(value) <= tolerance || Math.abs(step) <= tolerance;
+    }
+    return new Solution(new double[] {x}, value, iteration, evaluations, converged);
+  }
+
+  /**
+   * Finds root with Brent method, which combines bisection, secant and inverse quadratic interpolation steps.
+   *
+   * @param expression expression of single variable
+   * @param variable   variable name
+   * @param lower      lower bound of bracket
+   * @param upper      upper bound of bracket
+   * @return solution
+   * @throws IllegalArgumentException if expression has the same sign at both bounds
+   */
+  public Solution brent(Expression expression, String variable, double lower, double upper) {
+    CompiledExpression function = expression.bind(variable);
+    double[] arg = new double[function.getFrameSize()];
+    double a = lower;
+    double b = upper;
+    double fa = evaluate(function, arg, a);
+    double fb = evaluate(function, arg, b);
+    if (fa * fb > 0) {
+      throw new IllegalArgumentException("Root is not bracketed");
+    }
+    double c = a;
+    double fc = fa;
+    double d = b - a;
+    double e = d;
+    int iteration = 0;
+    while (iteration < maxIterations) {
+      if (fb * fc > 0) {
+        c = a;
+        fc = fa;
+        d = b - a;
+        e = d;
+      }
+      if (Math.abs(fc) < Math.abs(fb)) {
+        a = b;
+        b = c;
+        c = a;
+        fa = fb;
+        fb = fc;
+        fc = fa;
+      }
+      double bound = 2 * Math.ulp(b) + HALF * tolerance;
+      double middle = HALF * (c - b);
+      if (Math.abs(middle) <= bound || fb == 0) {
+        return new Solution(new double[] {b}, fb, iteration, iteration + 2, true);
+      }
+      if (Math.abs(e) >= bound && Math.abs(fa) > Math.abs(fb)) {
+        double s = fb / fa;
+        double p;
+        double q;
+        if (a == c) {
+          p = 2 * middle * s;
+          q = 1 - s;
+        } else {
+          double r = fb / fc;
+          q = fa / fc;
+          p = s * (2 * middle * q * (q - r) - (b - a) * (r - 1));
+          q = (q - 1) * (r - 1) * (s - 1);
+        }
+        if (p > 0) {
+          q = -q;
+        } else {
+          p = -p;
+        }
+        if (2 * p < Math.min(THREE * middle * q - Math.abs(bound * q), Math.abs(e * q))) {
+          e = d;
+          d = p / q;
+        } else {
+          d = middle;
+          e = d;
+        }
+      } else {
+        d = middle;
+        e = d;
+      }
+      a = b;
+      fa = fb;
+      b += Math.abs(d) > bound ? d : Math.copySign(bound, middle);
+      fb = evaluate(function, arg, b);
+      iteration++;
+    }
+    return new Solution(new double[] {b}, fb, iteration, iteration + 2, false);
+  }
+
+  /**
+   * Expands given interval geometrically until expression changes its sign between bounds.
+   *
+   * @param expression expression of single variable
+   * @param variable   variable name
+   * @param lower      initial lower bound
+   * @param upper      initial upper bound
+   * @return interval bracketing a root or {@link Interval#EMPTY} if none was found within iteration limit
+   */
+  public Interval bracket(Expression expression, String variable, double lower, double upper) {
+    CompiledExpression function = expression.bind(variable);
+    double[] arg = new double[function.getFrameSize()];
+    double a = Math.min(lower, upper);
+    double b = Math.max(lower, upper);
+    double fa = evaluate(function, arg, a);
+    double fb = evaluate(function, arg, b);
+    for (int i = 0; i < maxIterations; i++) {
+      if (fa * fb <= 0) {
+        return new Interval(a, b);
+      }
+      if (Math.abs(fa) < Math.abs(fb)) {
+        a += GROWTH * (a - b);
+        fa = evaluate(function, arg, a);
+      } else {
+        b += GROWTH * (b - a);
+        fb = evaluate(function, arg, b);
+      }
+    }
+    return Interval.EMPTY;
+  }
+
+  private static double evaluate(CompiledExpression function, double[] arg, double x) {
+    arg[0] = x;
+    return function.evaluateFrame(arg);
+  }
+}
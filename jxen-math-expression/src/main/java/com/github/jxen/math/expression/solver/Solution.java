@@ -0,0 +1,86 @@
+package com.github.jxen.math.expression.solver;
+
+import java.util.Arrays;
+
+/**
+ * {@code Solution} class represents result of root finding or minimization together with its cost.
+ *
+ * @author Denis Murashev
+ * @since Math Expression Parser 1.2
+ */
+public final class Solution {
+
+  private final double[] point;
+  private final double value;
+  private final int iterations;
+  private final int evaluations;
+  private final boolean converged;
+
+  Solution(double[] point, double value, int iterations, int evaluations, boolean converged) {
+    this.point = point;
+    this.value = value;
+    this.iterations = iterations;
+    this.evaluations = evaluations;
+    this.converged = converged;
+  }
+
+  /**
+   * Provides found point.
+   *
+   * @return argument values in order of variables of solved expression
+   */
+  public double[] getPoint() {
+    return point.clone();
+  }
+
+  /**
+   * Provides found point of one-dimensional problem.
+   *
+   * @return argument value
+   */
+  public double getX() {
+    return point[0];
+  }
+
+  /**
+   * Provides value of expression at found point.
+   *
+   * @return expression value
+   */
+  public double getValue() {
+    return value;
+  }
+
+  /**
+   * Provides number of performed iterations.
+   *
+   * @return number of iterations
+   */
+  public int getIterations() {
+    return iterations;
+  }
+
+  /**
+   * Provides number of expression evaluations. Evaluation of a value together with its gradient counts once.
+   *
+   * @return number of evaluations
+   */
+  public int getEvaluations() {
+    return evaluations;
+  }
+
+  /**
+   * Checks if requested tolerance was reached.
+   *
+   * @return {@code true} if method converged within iteration limit
+   */
+  public boolean isConverged() {
+    return converged;
+  }
+
+  @Override
+  public String toString() {
+    return "Solution{point=" + Arrays.toString(point) + ", value=" + value + ", iterations=" + iterations
+        + ", evaluations=" + evaluations + ", converged=" + converged + '}';
+  }
+}
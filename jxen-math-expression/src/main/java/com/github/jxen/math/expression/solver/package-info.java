@@ -0,0 +1,4 @@
+/**
+ * Root Finding and Minimization of Math Expressions.
+ */
+package com.github.jxen.math.expression.solver;
@@ -1,8 +1,28 @@
 package com.github.jxen.math.expression;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.github.jxen.math.rational.BigRational;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
 
 class ExpressionTest {
@@ -31,6 +51,60 @@ class ExpressionTest {
     assertEquals("x", expression.simplify().toString());
   }
 
+  @Test
+  void testSimplifyConstants() {
+    Expression expression = new Parser().compile("2*x*3+1+x*4-5", Collections.singleton("x"));
+    assertEquals("((10*x)-4)", expression.simplify().toString());
+  }
+
+  @Test
+  void testSimplifyPowers() {
+    Expression expression = new Parser().compile("x*x*y/(x*y)+(x^2)^3/x", Arrays.asList("x", "y"));
+    assertEquals("(x+(x^5))", expression.simplify().toString());
+  }
+
+  @Test
+  void testSimplifyCancel() {
+    Expression expression = new Parser().compile("x/x+y*x-x*y", Arrays.asList("x", "y"));
+    assertEquals("1", expression.simplify().toString());
+  }
+
+  @Test
+  void testSimplifyCanonicalOrder() {
+    Expression first = new Parser().compile("sin(y)*2+x*y", Arrays.asList("x", "y"));
+    Expression second = new Parser().compile("y*x+sin(y)+sin(y)", Arrays.asList("x", "y"));
+    assertEquals(first.simplify().toString(), second.simplify().toString());
+  }
+
+  @Test
+  void testSimplifyKeepsOriginal() {
+    Expression expression = new Parser().compile("x*(0+x)+sin(1*x)", Collections.singleton("x"));
+    assertEquals("(sin(x)+(x^2))", expression.simplify().toString());
+    assertEquals("((x*(0.0+x))+sin((1.0*x)))", expression.toString());
+  }
+
+  @Test
+  void testSimplifyExactCoefficient() {
+    StringBuilder builder = new StringBuilder("x");
+    for (int i = 1; i < 50; i++) {
+      builder.append("+x");
+    }
+    assertEquals("(50*x)", new Parser().compile(builder.toString(), Collections.singleton("x")).simplify().toString());
+  }
+
+  @Test
+  void testSimplifyInfiniteCoefficient() {
+    Parser parser = new Parser();
+    Map<String, Number> args = new HashMap<>();
+    args.put("y", -1.5);
+    args.put("z", 2);
+    for (String source : Arrays.asList("1+y/0", "2/(y - z/th(0))", "y/0 + 3*(y/0) - z", "1 + (0/0)*y")) {
+      Expression expression = parser.compile(source, Arrays.asList("y", "z"));
+      assertEquals(expression.evaluate(args), expression.simplify().evaluate(args), source);
+      assertEquals(expression.evaluate(args), expression.optimize().bind("y", "z").applyAsDouble(-1.5, 2), source);
+    }
+  }
+
   @Test
   void testDerivativeCase1() {
     Expression expression = new Parser().compile("1", Collections.singleton("x"));
@@ -40,19 +114,19 @@ class ExpressionTest {
   @Test
   void testDerivativeCase2() {
     Expression expression = new Parser().compile("2*x", Collections.singleton("x"));
-    assertEquals("2.0", expression.derivative("x").toString());
+    assertEquals("2", expression.derivative("x").toString());
   }
 
   @Test
   void testDerivativeCase3() {
     Expression expression = new Parser().compile("x^3+x^2-x+1", Collections.singleton("x"));
-    assertEquals("(((3.0*(x^2.0))+(2.0*(x^1.0)))-1)", expression.derivative("x").toString());
+    assertEquals("(((2*x)+(3*(x^2)))-1)", expression.derivative("x").toString());
   }
 
   @Test
   void testDerivativeCase4() {
     Expression expression = new Parser().compile("sin(x/2)", Collections.singleton("x"));
-    assertEquals("(cos((x/2.0))*(2.0/4.0))", expression.derivative("x").toString());
+    assertEquals("(0.5*cos((0.5*x)))", expression.derivative("x").toString());
   }
 
   @Test
@@ -112,19 +186,19 @@ class ExpressionTest {
   @Test
   void testDerivativeArcsin() {
     Expression expression = new Parser().compile("arcsin(x)", Collections.singleton("x"));
-    assertEquals("(1/sqrt((1-(x*x))))", expression.derivative("x").toString());
+    assertEquals("(1/sqrt((1-(x^2))))", expression.derivative("x").toString());
   }
 
   @Test
   void testDerivativeArccos() {
     Expression expression = new Parser().compile("arccos(x)", Collections.singleton("x"));
-    assertEquals("(-1/sqrt((1-(x*x))))", expression.derivative("x").toString());
+    assertEquals("(-1/sqrt((1-(x^2))))", expression.derivative("x").toString());
   }
 
   @Test
   void testDerivativeArctg() {
     Expression expression = new Parser().compile("arctg(x)", Collections.singleton("x"));
-    assertEquals("(1/(1+(x*x)))", expression.derivative("x").toString());
+    assertEquals("(1/((x^2)+1))", expression.derivative("x").toString());
   }
 
   @Test
@@ -154,6 +228,507 @@ class ExpressionTest {
   @Test
   void testDerivativeSign() {
     Expression expression = new Parser().compile("sign(x)", Collections.singleton("x"));
-    assertEquals("0.0", expression.derivative("x").toString());
+    assertEquals("0", expression.derivative("x").toString());
+  }
+
+  @Test
+  void testMultipleArguments() {
+    Parser parser = new Parser();
+    Expression expression = parser.compile("hypot(x, y) + max(x, y, 1) * atan2(y, x)", Arrays.asList("x", "y"));
+    Map<String, Double> args = new HashMap<>();
+    args.put("x", 3.0);
+    args.put("y", 4.0);
+    double expected = 5 + 4 * Math.atan2(4, 3);
+    assertEquals(expected, expression.evaluate(args));
+    assertEquals(expected, expression.compile().applyAsDouble(3, 4));
+    assertEquals(expected, expression.optimize().compile().applyAsDouble(3, 4));
+    double[] out = new double[1];
+    expression.evaluateBatch(new double[][] {{3}, {4}}, out);
+    assertEquals(expected, out[0]);
+    double[] gradient = new double[2];
+    expression.compile().evaluateGradient(new double[] {3, 4}, gradient);
+    assertEquals(expression.derivative("x").evaluate(args), gradient[0], 1e-15);
+    assertEquals(expression.derivative("y").evaluate(args), gradient[1], 1e-15);
+    assertEquals("max(x,y,1.0)", parser.compile("max(x,y,1)").toString());
+  }
+
+  @Test
+  void testMultipleArgumentsSimplify() {
+    Parser parser = new Parser();
+    assertEquals("x", parser.compile("if(2 - 1, x, y)", Arrays.asList("x", "y")).simplify().toString());
+    assertEquals("(x^2)", parser.compile("pow(x, 1 + 1)", Arrays.asList("x", "y")).simplify().toString());
+    assertEquals("x", parser.compile("sum(x)", Arrays.asList("x", "y")).simplify().toString());
+    assertEquals("max(x,3)", parser.compile("max(x, 1 + 2)", Arrays.asList("x", "y")).simplify().toString());
+    assertEquals("((2*x)+1)", parser.compile("sum(x, x^2, 3)", Arrays.asList("x", "y")).derivative("x").toString());
+    assertEquals("if(y,1,0)", parser.compile("if(y, x, 5)", Arrays.asList("x", "y")).derivative("x").toString());
+    assertEquals("max'(1,x,y)", parser.compile("max(x, y)", Arrays.asList("x", "y")).derivative("y").toString());
+  }
+
+  @Test
+  void testMultipleArgumentsInterval() {
+    Expression expression = new Parser().compile("clamp(x, 0, 1) + max(x, 2)", Collections.singletonList("x"));
+    Interval interval = expression.evaluateInterval(Collections.singletonMap("x", new Interval(-1, 3)));
+    assertEquals(2, interval.getLower(), 1e-15);
+    assertEquals(4, interval.getUpper(), 1e-15);
+  }
+
+  @Test
+  void testEvaluateDecimal() {
+    Map<String, Number> args = new HashMap<>();
+    args.put("x", 3);
+    MathContext context = new MathContext(40);
+    Expression expression = new Parser().compile("1/x*x + 0.1 + 0.2 + sqrt(2)", args.keySet());
+    assertEquals(new BigDecimal("2.714213562373095048801688724209698078570"), expression.evaluate(args, context));
+    assertEquals(new BigDecimal("0.1111111111111111111111111111111111111111"),
+        new Parser().compile("x^(-2)", args.keySet()).evaluate(args, context));
+    assertEquals(Math.sin(3), new Parser().compile("sin(x)", args.keySet()).evaluate(args, context).doubleValue());
+    assertThrows(ArithmeticException.class, () -> new Parser().compile("1/(x-3)", args.keySet())
+        .evaluate(args, context));
+  }
+
+  @Test
+  void testEvaluateRational() {
+    Map<String, Number> args = new HashMap<>();
+    args.put("x", 3);
+    args.put("y", new BigRational(1, 7));
+    Expression expression = new Parser().compile("1/x + y*7/x^2 + 0.1 + 0.2", args.keySet());
+    assertEquals(new BigRational(67, 90), expression.evaluateRational(args));
+    assertEquals(new BigRational(1, 9), new Parser().compile("max(x^(-2), -y, abs(-1/9))", args.keySet())
+        .evaluateRational(args));
+    assertEquals(new BigRational(2), new Parser().compile("cos(0)+1", args.keySet()).evaluateRational(args));
+    assertThrows(ArithmeticException.class, () -> new Parser().compile("ln(x-3)", args.keySet())
+        .evaluateRational(args));
+  }
+
+  @Test
+  void testEvaluateGuarded() {
+    Map<String, Number> args = new HashMap<>();
+    args.put("x", 0);
+    Expression expression = new Parser().compile("if(x, 1/x, 0) + if(x-1, 2, 1/x)", args.keySet());
+    assertEquals(2, expression.evaluate(args));
+    assertEquals(0, new BigDecimal(2).compareTo(expression.evaluate(args, MathContext.DECIMAL64)));
+    assertEquals(new BigRational(2), expression.evaluateRational(args));
+    args.put("x", 4);
+    assertEquals(new BigRational(9, 4), expression.evaluateRational(args));
+  }
+
+  @Test
+  void testWriteRead() throws IOException {
+    FunctionRegistry registry = new FunctionRegistry();
+    registry.register(new MathFunction("cube", x -> x * x * x, x -> 3 * x * x));
+    Parser parser = new Parser(registry);
+    Expression first = parser.compile("sin(x*y)^2 + cos(x*y)/pi - max(x, 2.5, y)", Arrays.asList("x", "y"))
+        .optimize();
+    Expression second = parser.compile("cube(x) - 1", Collections.singleton("x")).derivative("x");
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      first.writeTo(out);
+      second.writeTo(out);
+    }
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    Expression firstRead = Expression.readFrom(in);
+    Expression secondRead = Expression.readFrom(in, registry);
+    assertEquals(first, firstRead);
+    assertEquals(first.toString(), firstRead.toString());
+    assertEquals(first.compile().applyAsDouble(1.5, 2), firstRead.compile().applyAsDouble(1.5, 2));
+    assertEquals(second, secondRead);
+    assertEquals(12, secondRead.evaluate(Collections.singletonMap("x", 2)));
+    byte[] unknown = bytes.toByteArray();
+    assertThrows(ExpressionException.class, () -> {
+      DataInputStream input = new DataInputStream(new ByteArrayInputStream(unknown));
+      Expression.readFrom(input);
+      Expression.readFrom(input);
+    });
+    assertThrows(IOException.class, () -> Expression.readFrom(new DataInputStream(new ByteArrayInputStream(
+        Arrays.copyOf(unknown, 10)))));
+  }
+
+  @Test
+  void testReadCorrupted() {
+    byte[] negativeCount = {1, -1, -1, -1, -1, 15};
+    byte[] hugeCount = {1, -1, -1, -1, -1, 7};
+    byte[] negativeIndex = {1, 1, 0, 1, 'x', 1, 1, -1, -1, -1, -1, 15};
+    byte[] forwardIndex = {1, 1, 0, 1, '+', 1, 2, 0, 0, 0};
+    for (byte[] data : Arrays.asList(negativeCount, hugeCount, negativeIndex, forwardIndex)) {
+      assertThrows(IOException.class, () -> Expression.readFrom(new DataInputStream(new ByteArrayInputStream(data))));
+    }
+  }
+
+  @Test
+  void testProfile() {
+    Expression expression = new Parser().compile("sin(x)*cos(y) + x", Arrays.asList("x", "y"));
+    ProfiledExpression profiled = expression.profile("x", "y");
+    for (int i = 0; i < 10; i++) {
+      assertEquals(expression.compile().applyAsDouble(i, 2), profiled.applyAsDouble(i, 2));
+    }
+    Profile profile = profiled.getProfile();
+    assertEquals(10, profile.getCalls());
+    assertEquals(4, profile.getNodes().size());
+    Map<Integer, NodeProfile> nodes = new HashMap<>();
+    long self = 0;
+    for (NodeProfile node : profile.getNodes()) {
+      nodes.put(node.getPosition(), node);
+      assertEquals(10, node.getCount());
+      assertTrue(node.getSelfNanos() <= node.getTotalNanos());
+      self += node.getSelfNanos();
+    }
+    assertEquals("sin(x)", nodes.get(0).getExpression());
+    assertEquals("cos(y)", nodes.get(7).getExpression());
+    assertEquals(self, nodes.get(14).getTotalNanos());
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    if (threads instanceof com.sun.management.ThreadMXBean
+        && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()
+        && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemoryEnabled()) {
+      assertTrue(profile.getAllocatedBytes() >= 0);
+    } else {
+      assertEquals(-1, profile.getAllocatedBytes());
+    }
+    profiled.reset();
+    assertEquals(0, profiled.getProfile().getNodes().get(0).getCount());
+  }
+
+  @Test
+  void testCompile() {
+    CompiledExpression compiled = new Parser().compile("sin(x)^2+y*2-y/4", Arrays.asList("y", "x")).compile();
+    assertEquals(Arrays.asList("x", "y"), compiled.getVariables());
+    assertEquals(Math.pow(Math.sin(1.5), 2) + 3 * 2 - 3 / 4.0, compiled.applyAsDouble(1.5, 3), 1e-15);
+  }
+
+  @Test
+  void testCompileConstant() {
+    CompiledExpression compiled = new Parser().compile("2*pi%3").compile();
+    assertEquals(Collections.emptyList(), compiled.getVariables());
+    assertEquals(2 * Math.PI % 3, compiled.applyAsDouble());
+  }
+
+  @Test
+  void testEvaluateFrame() {
+    Expression expression = new Parser().compile("sin(x*y) + cos(x*y) + (x*y)^2", Arrays.asList("x", "y")).optimize();
+    CompiledExpression compiled = expression.bind("y", "x");
+    assertTrue(compiled.getFrameSize() > compiled.getVariables().size());
+    double[] frame = new double[compiled.getFrameSize()];
+    for (int i = 0; i < 3; i++) {
+      frame[0] = i;
+      frame[1] = 1.5;
+      assertEquals(compiled.applyAsDouble(i, 1.5), compiled.evaluateFrame(frame));
+    }
+    assertEquals(compiled.getFrameSize(), expression.memoize(Collections.singleton("x"), "y", "x").getFrameSize());
+    assertEquals(compiled.getFrameSize(), expression.profile("y", "x").getFrameSize());
+  }
+
+  @Test
+  void testBind() {
+    Expression expression = new Parser().compile("x-2*y", Arrays.asList("x", "y"));
+    CompiledExpression compiled = expression.bind("Y", "z", "X");
+    assertEquals(Arrays.asList("y", "z", "x"), compiled.getVariables());
+    assertEquals(1, compiled.applyAsDouble(new double[] {2, 0, 5}));
+  }
+
+  @Test
+  void testBindFailureUnbound() {
+    Expression expression = new Parser().compile("x-2*y", Arrays.asList("x", "y"));
+    assertThrows(ExpressionException.class, () -> expression.bind("x"));
+  }
+
+  @Test
+  void testBindFailureDuplicate() {
+    Expression expression = new Parser().compile("x-2*y", Arrays.asList("x", "y"));
+    assertThrows(ExpressionException.class, () -> expression.bind("x", "y", "x"));
+  }
+
+  @Test
+  void testMemoize() {
+    FunctionRegistry registry = new FunctionRegistry();
+    AtomicInteger counter = new AtomicInteger();
+    registry.register(new MathFunction("slow", x -> {
+      counter.incrementAndGet();
+      return x * x;
+    }));
+    Expression expression = new Parser(registry).compile("slow(a+1)*x+slow(a+1)/2+slow(x)", Arrays.asList("x", "a"))
+        .optimize();
+    MemoizedExpression memoized = expression.memoize(Collections.singleton("A"), "x", "a");
+    assertEquals(Arrays.asList("x", "a"), memoized.getVariables());
+    assertEquals(expression.compile().applyAsDouble(2, 3), memoized.applyAsDouble(3, 2));
+    counter.set(0);
+    assertEquals(16 * 5 + 8 + 25, memoized.applyAsDouble(5, 3));
+    assertEquals(16 * 6 + 8 + 36, memoized.applyAsDouble(6, 3));
+    assertEquals(3, counter.get());
+    assertEquals(25 * 6 + 12.5 + 36, memoized.applyAsDouble(6, 4));
+    assertEquals(5, counter.get());
+  }
+
+  @Test
+  void testIncremental() {
+    FunctionRegistry registry = new FunctionRegistry();
+    AtomicInteger counter = new AtomicInteger();
+    registry.register(new MathFunction("slow", x -> {
+      counter.incrementAndGet();
+      return x * x;
+    }));
+    CompiledExpression compiled = new Parser(registry)
+        .compile("slow(x+1)*y+sin(z)/slow(y)", Arrays.asList("x", "y", "z")).compile();
+    double expected = compiled.applyAsDouble(5, 2, 4);
+    IncrementalExpression incremental = compiled.incremental(1, 2, 3);
+    assertEquals(compiled.applyAsDouble(1, 2, 3), incremental.getValue());
+    counter.set(0);
+    assertEquals(Math.sin(4) / 4 + 8, incremental.set("Z", 4), 1e-15);
+    assertEquals(0, counter.get());
+    assertEquals(expected, incremental.set(0, 5));
+    assertEquals(1, counter.get());
+    assertEquals(expected, incremental.set("x", 5));
+    assertEquals(1, counter.get());
+    assertThrows(ExpressionException.class, () -> incremental.set("w", 1));
+  }
+
+  @Test
+  void testEvaluateGradient() {
+    CompiledExpression compiled = new Parser().compile("x*y+sin(x)^2-y/x", Arrays.asList("x", "y")).compile();
+    double[] gradient = new double[2];
+    double value = compiled.evaluateGradient(new double[] {1.5, 3}, gradient);
+    assertEquals(1.5 * 3 + Math.pow(Math.sin(1.5), 2) - 3 / 1.5, value, 1e-15);
+    assertArrayEquals(new double[] {3 + 2 * Math.sin(1.5) * Math.cos(1.5) + 3 / 2.25, 1.5 - 1 / 1.5}, gradient, 1e-14);
+  }
+
+  @Test
+  void testEvaluateGradientShared() {
+    Expression expression = new Parser().compile("exp(x*y)+exp(x*y)*x", Arrays.asList("x", "y")).optimize();
+    double[] gradient = new double[2];
+    expression.bind("y", "x").evaluateGradient(new double[] {0.5, 2}, gradient);
+    double exp = Math.exp(1);
+    assertArrayEquals(new double[] {2 * exp + 2 * 2 * exp, 0.5 * exp + exp + 2 * 0.5 * exp}, gradient, 1e-13);
+  }
+
+  @Test
+  void testEvaluateGradientWork() {
+    CompiledExpression compiled = new Parser().compile("exp(x*y)+exp(x*y)*x", Arrays.asList("x", "y")).optimize()
+        .bind("y", "x");
+    double[] values = new double[compiled.getTapeSize()];
+    double[] adjoints = new double[compiled.getTapeSize()];
+    double[] expected = new double[2];
+    double[] gradient = new double[2];
+    for (double x = 0; x < 2; x += 0.5) {
+      double[] args = {x, 2};
+      assertEquals(compiled.evaluateGradient(args, expected), compiled.evaluateGradient(args, gradient, values,
+          adjoints));
+      assertArrayEquals(expected, gradient);
+    }
+  }
+
+  @Test
+  void testEvaluateGradientGuarded() {
+    Expression expression = new Parser().compile("if(x, 1, sqrt(y)) + if(x, x*2, ln(y) + y^0.5)",
+        Arrays.asList("x", "y"));
+    double[] gradient = new double[2];
+    assertEquals(3, expression.bind("x", "y").evaluateGradient(new double[] {1, -1}, gradient));
+    Map<String, Number> args = new HashMap<>();
+    args.put("x", 1);
+    args.put("y", -1);
+    double[] expected = {expression.derivative("x").evaluate(args), expression.derivative("y").evaluate(args)};
+    assertArrayEquals(expected, gradient);
+    assertArrayEquals(new double[] {2, 0}, gradient);
+  }
+
+  @Test
+  void testEvaluateGradientMatchesDerivative() {
+    Expression expression = new Parser().compile("arctg(x^3)*ch(x)/sqrt(x+2)", Collections.singletonList("x"));
+    double[] gradient = new double[1];
+    expression.compile().evaluateGradient(new double[] {0.7}, gradient);
+    double expected = expression.derivative("x").evaluate(Collections.singletonMap("x", 0.7));
+    assertEquals(expected, gradient[0], 1e-14);
+  }
+
+  @Test
+  void testEvaluateDual() {
+    CompiledExpression compiled = new Parser().compile("x^2*y-ln(y)", Arrays.asList("x", "y")).compile();
+    Dual dual = compiled.evaluateDual(new double[] {-2, 3}, new double[] {1, 2});
+    assertEquals(4 * 3 - Math.log(3), dual.getValue(), 1e-15);
+    assertEquals(2 * -2 * 3 + 2 * (4 - 1 / 3.0), dual.getDerivative(), 1e-14);
+  }
+
+  @Test
+  void testEvaluateDualGuarded() {
+    CompiledExpression compiled = new Parser().compile("if(x, 1, sqrt(y)) + if(x, x*2, 0*ln(y))",
+        Arrays.asList("x", "y")).compile();
+    assertEquals(new Dual(3, 0), compiled.evaluateDual(new double[] {1, -1}, new double[] {0, 1}));
+    assertEquals(new Dual(3, 2), compiled.evaluateDual(new double[] {1, -1}, new double[] {1, 1}));
+  }
+
+  @Test
+  void testEvaluateDualMatchesGradient() {
+    CompiledExpression compiled = new Parser().compile("th(x*y)/(1+abs(x))+x%y", Arrays.asList("x", "y")).compile();
+    double[] args = {0.3, 1.7};
+    double[] gradient = new double[2];
+    double value = compiled.evaluateGradient(args, gradient);
+    assertEquals(new Dual(value, gradient[1]), compiled.evaluateDual(args, new double[] {0, 1}));
+  }
+
+  @Test
+  void testGradient() {
+    ExpressionSystem gradient = new Parser().compile("x^2*y+sin(x*y)", Arrays.asList("x", "y")).gradient("x", "y");
+    assertEquals(2, gradient.getRows());
+    assertEquals(1, gradient.getColumns());
+    double[] values = gradient.bind("x", "y").evaluate(0.5, 2);
+    assertArrayEquals(new double[] {2 * 0.5 * 2 + 2 * Math.cos(1), 0.25 + 0.5 * Math.cos(1)}, values, 1e-15);
+  }
+
+  @Test
+  void testHessian() {
+    Expression expression = new Parser().compile("x^2*y+sin(x*y)", Arrays.asList("x", "y"));
+    ExpressionSystem hessian = expression.hessian("x", "y");
+    assertEquals(hessian.get(0, 1), hessian.get(1, 0));
+    double[] values = hessian.compile().evaluate(0.5, 2);
+    double sin = Math.sin(1);
+    double mixed = 2 * 0.5 + Math.cos(1) - 0.5 * 2 * sin;
+    assertArrayEquals(new double[] {2 * 2 - 4 * sin, mixed, mixed, -0.25 * sin}, values, 1e-14);
+  }
+
+  @Test
+  void testJacobian() {
+    Parser parser = new Parser();
+    ExpressionSystem system = ExpressionSystem.of(parser.compile("exp(x*y)-y", Arrays.asList("x", "y")),
+        parser.compile("exp(x*y)*x", Arrays.asList("x", "y")));
+    ExpressionSystem jacobian = system.jacobian("x", "y");
+    assertEquals(2, jacobian.getRows());
+    assertEquals(2, jacobian.getColumns());
+    assertEquals("(y*exp((x*y)))", jacobian.get(0, 0).toString());
+    CompiledSystem compiled = jacobian.bind("y", "x");
+    double[] values = new double[4];
+    compiled.evaluate(new double[] {3, 0.5}, values);
+    double exp = Math.exp(1.5);
+    assertArrayEquals(new double[] {3 * exp, 0.5 * exp - 1, exp + 1.5 * exp, 0.25 * exp}, values, 1e-13);
+    assertThrows(IndexOutOfBoundsException.class, () -> jacobian.get(2, 0));
+  }
+
+  @Test
+  void testEvaluateInterval() {
+    Expression expression = new Parser().compile("x^2-2*x*y+sin(y)", Arrays.asList("x", "y"));
+    Map<String, Interval> box = new HashMap<>();
+    box.put("x", new Interval(-1, 2));
+    box.put("y", new Interval(0, 3));
+    Interval interval = expression.evaluateInterval(box);
+    assertEquals(-12, interval.getLower(), 1e-12);
+    assertEquals(11, interval.getUpper(), 1e-12);
+    Random random = new Random(1);
+    for (int i = 0; i < 1000; i++) {
+      double x = -1 + 3 * random.nextDouble();
+      double y = 3 * random.nextDouble();
+      assertTrue(interval.contains(x * x - 2 * x * y + Math.sin(y)));
+    }
+  }
+
+  @Test
+  void testEvaluateIntervalFunctions() {
+    Parser parser = new Parser();
+    Map<String, Interval> box = Collections.singletonMap("x", new Interval(1, 2));
+    Interval sin = parser.compile("sin(x)", Collections.singletonList("x")).evaluateInterval(box);
+    assertEquals(Math.sin(1), sin.getLower(), 1e-15);
+    assertEquals(1, sin.getUpper());
+    Interval cos = parser.compile("cos(x*3)", Collections.singletonList("x")).evaluateInterval(box);
+    assertEquals(-1, cos.getLower());
+    assertEquals(Math.cos(6), cos.getUpper(), 1e-15);
+    assertEquals(Interval.ENTIRE, parser.compile("tg(x)", Collections.singletonList("x")).evaluateInterval(box));
+    Interval tg = parser.compile("tg(x-1)", Collections.singletonList("x")).evaluateInterval(box);
+    assertEquals(Math.tan(1), tg.getUpper(), 1e-15);
+    assertTrue(parser.compile("ln(x-3)", Collections.singletonList("x")).evaluateInterval(box).isEmpty());
+    Interval square = parser.compile("(x-1.5)^2", Collections.singletonList("x")).evaluateInterval(box);
+    assertEquals(0, square.getLower());
+    assertEquals(0.25, square.getUpper(), 1e-15);
+    assertEquals(Interval.ENTIRE, parser.compile("1/(x-1)", Collections.singletonList("x")).evaluateInterval(box));
+  }
+
+  @Test
+  void testEvaluateBatch() {
+    Expression expression = new Parser().compile("(x+1)*y-sqrt(x)/2+ln(2)", Arrays.asList("x", "y"));
+    int size = 2500;
+    double[][] columns = new double[2][size];
+    for (int i = 0; i < size; i++) {
+      columns[0][i] = i;
+      columns[1][i] = size - i;
+    }
+    double[] out = new double[size];
+    expression.evaluateBatch(columns, out);
+    for (int i = 0; i < size; i++) {
+      assertEquals((i + 1.0) * (size - i) - Math.sqrt(i) / 2 + Math.log(2), out[i], 1e-9);
+    }
+  }
+
+  @Test
+  void testEvaluateMultipleArguments() {
+    FunctionRegistry registry = new FunctionRegistry();
+    registry.register(new MathFunction("mid", 3, 3, args -> (args[0] + args[1] + args[2]) / 3, (args, index) -> 1 / 3.0,
+        true));
+    String source = "min(x,y) + max(x,y,1) + sum(x,y) + sum(x,y,2) + hypot(x,y) + atan2(y,x) + clamp(x,0,y)"
+        + " + pow(y,x) + if(x-1,y,x) + mid(x,y,3) + max(x,y,0,-1)";
+    Expression expression = new Parser(registry).compile(source, Arrays.asList("x", "y"));
+    CompiledExpression compiled = expression.compile();
+    double[][] columns = {{0, 1, 2.5, -3}, {1.5, -2, 0.5, 4}};
+    double[] out = new double[4];
+    compiled.evaluateBatch(columns, out);
+    for (int i = 0; i < out.length; i++) {
+      Map<String, Number> args = new HashMap<>();
+      args.put("x", columns[0][i]);
+      args.put("y", columns[1][i]);
+      double expected = expression.evaluate(args);
+      assertEquals(expected, compiled.applyAsDouble(columns[0][i], columns[1][i]));
+      assertEquals(expected, out[i]);
+      double[] gradient = new double[2];
+      assertEquals(expected, compiled.evaluateGradient(new double[] {columns[0][i], columns[1][i]}, gradient));
+    }
+  }
+
+  @Test
+  void testEvaluateBatchParallel() {
+    CompiledExpression compiled = new Parser().compile("x*x-x/3", Collections.singleton("x")).compile();
+    int size = 100_003;
+    double[][] columns = new double[1][size];
+    for (int i = 0; i < size; i++) {
+      columns[0][i] = i;
+    }
+    double[] out = new double[size];
+    compiled.evaluateBatch(columns, out, ForkJoinPool.commonPool());
+    for (int i = 0; i < size; i++) {
+      assertEquals((double) i * i - i / 3.0, out[i]);
+    }
+  }
+
+  @Test
+  void testOptimize() {
+    Expression expression = new Parser().compile("exp(-r*t)*a+exp(-r*t)*b-sin(a)/exp(-r*t)",
+        Arrays.asList("r", "t", "a", "b")).optimize();
+    CompiledExpression compiled = expression.bind("r", "t", "a", "b");
+    double discount = Math.exp(-0.05 * 2);
+    double expected = discount * 3 + discount * 4 - Math.sin(3) / discount;
+    double[] args = {0.05, 2, 3, 4};
+    assertEquals(expected, compiled.applyAsDouble(args), 1e-12);
+    assertArrayEquals(new double[] {0.05, 2, 3, 4}, args);
+    double[] out = new double[1];
+    compiled.evaluateBatch(new double[][] {{0.05}, {2}, {3}, {4}}, out);
+    assertEquals(expected, out[0], 1e-12);
+  }
+
+  @Test
+  void testOptimizeDerivative() {
+    Expression expression = new Parser().compile("sin(x*y)/(x*y)", Arrays.asList("x", "y"));
+    Expression derivative = expression.derivative("x").optimize();
+    double x = 0.7;
+    double y = 1.3;
+    double expected = (Math.cos(x * y) * y * x * y - Math.sin(x * y) * y) / Math.pow(x * y, 2);
+    assertEquals(expected, derivative.bind("x", "y").applyAsDouble(x, y), 1e-12);
+  }
+
+  @Test
+  void testMetadata() {
+    Expression expression = new Parser().compile("sin(x)*2+y", Arrays.asList("x", "y"));
+    assertEquals(4, expression.getDepth());
+    assertEquals(6, expression.getSize());
+  }
+
+  @Test
+  void testEquals() {
+    Expression first = new Parser().compile("x+2*y", Arrays.asList("x", "y"));
+    Expression second = new Parser().compile("y*2+x", Arrays.asList("x", "y"));
+    assertNotEquals(first, second);
+    assertEquals(first.simplify(), second.simplify());
+    assertEquals(first.simplify().hashCode(), second.simplify().hashCode());
   }
 }
@@ -1,8 +1,15 @@
 package com.github.jxen.math.expression;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.Test;
 
 class ParserTest {
@@ -42,6 +49,19 @@ class ParserTest {
     assertThrows(ExpressionException.class, () -> new Parser().compile("sin"));
   }
 
+  @Test
+  void testCompileFailurePosition() {
+    ExpressionException e = assertThrows(ExpressionException.class, () -> new Parser().compile("1+(2*)"));
+    assertEquals("Missing right operand", e.getMessage());
+    assertEquals(4, e.getPosition());
+  }
+
+  @Test
+  void testCompileFailureUnknownFunction() {
+    ExpressionException e = assertThrows(ExpressionException.class, () -> new Parser().compile("2 sin(1)"));
+    assertEquals(2, e.getPosition());
+  }
+
   @Test
   void testCompileConst() {
     double actual = new Parser().compile("e").evaluate(null);
@@ -89,4 +109,225 @@ class ParserTest {
     double actual = new Parser().compile("ctg(pi/4)").evaluate(null);
     assertEquals(1, actual, 1e-15);
   }
+
+  @Test
+  void testCompileCached() {
+    ExpressionCache cache = new ExpressionCache(2);
+    Expression expression = new Parser(cache).compile("X+1", Collections.singleton("x"));
+    assertSame(expression, new Parser(cache).compile("x+1", Collections.singleton("X")));
+    assertNotSame(expression, new Parser(cache).compile("x+1", Arrays.asList("x", "y")));
+    new Parser(cache).compile("2+2");
+    assertEquals(1, cache.getHitCount());
+    assertEquals(3, cache.getMissCount());
+    assertEquals(1, cache.getEvictionCount());
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  void testCompileCachedConcurrently() {
+    ExpressionCache cache = new ExpressionCache(8);
+    IntStream.range(0, 10_000).parallel().forEach(i -> {
+      Expression expression = new Parser(cache).compile("x*" + i % 16, Collections.singleton("x"));
+      assertEquals(2.0 * (i % 16), expression.evaluate(Collections.singletonMap("x", 2)));
+    });
+    assertEquals(10_000, cache.getHitCount() + cache.getMissCount());
+    assertTrue(cache.getEvictionCount() <= cache.getMissCount() - 8);
+    assertEquals(8, cache.size());
+  }
+
+  @Test
+  void testCompileCachedWhitespace() {
+    ExpressionCache cache = new ExpressionCache(4);
+    Parser parser = new Parser(cache);
+    Expression expression = parser.compile("x+1", Collections.singleton("x"));
+    Expression spaced = parser.compile("x + 1", Collections.singleton("x"));
+    assertNotSame(expression, spaced);
+    assertEquals(expression, spaced);
+    assertSame(spaced, parser.compile("X + 1", Collections.singleton("x")));
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  void testCompileWhitespace() {
+    double actual = new Parser().compile(" 2 *\t( 3 + sqrt 4 ) ").evaluate(null);
+    assertEquals(10, actual);
+  }
+
+  @Test
+  void testCompileLong() {
+    StringBuilder builder = new StringBuilder("x");
+    for (int i = 1; i < Parser.MAX_DEPTH; i++) {
+      builder.append(i % 2 == 0 ? '+' : '-').append('x');
+    }
+    Expression expression = new Parser().compile(builder.toString(), Collections.singleton("x"));
+    assertEquals(0, expression.evaluate(Collections.singletonMap("x", 1)));
+  }
+
+  @Test
+  void testCompilePriority() {
+    assertEquals(64, new Parser().compile("2^3^2").evaluate(null));
+    assertEquals(1, new Parser().compile("8/4/2").evaluate(null));
+    assertEquals(-4, new Parser().compile("-2^2").evaluate(null));
+    assertEquals(-6, new Parser().compile("(-3)*2").evaluate(null));
+    assertEquals(6, new Parser().compile("sqrt 4*3").evaluate(null));
+  }
+
+  @Test
+  void testCompileDeepNesting() {
+    int depth = 10_000;
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < depth; i++) {
+      builder.append('(');
+    }
+    builder.append("1+2");
+    for (int i = 0; i < depth; i++) {
+      builder.append(')');
+    }
+    assertEquals(3, new Parser().compile(builder.toString()).evaluate(null));
+  }
+
+  @Test
+  void testCompileNestedFunctions() {
+    int depth = Parser.MAX_DEPTH - 2;
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < depth; i++) {
+      builder.append("abs(");
+    }
+    builder.append("-1");
+    for (int i = 0; i < depth; i++) {
+      builder.append(')');
+    }
+    assertEquals(1, new Parser().compile(builder.toString()).evaluate(null));
+  }
+
+  @Test
+  void testCompileVeryLong() {
+    // Parsing time against formula length is measured by ParserBenchmark in jxen-math-benchmarks
+    StringBuilder builder = new StringBuilder("sum(1");
+    for (int i = 0; i < 100_000; i++) {
+      builder.append(",x*2");
+    }
+    Expression expression = new Parser().compile(builder.append(')').toString(), Collections.singleton("x"));
+    assertEquals(300_001, expression.evaluate(Collections.singletonMap("x", 1.5)));
+    assertEquals(300_001, expression.simplify().compile().applyAsDouble(1.5));
+  }
+
+  @Test
+  void testCompileMaxDepth() {
+    StringBuilder builder = new StringBuilder("x");
+    for (int i = 1; i < Parser.MAX_DEPTH; i++) {
+      builder.append("+x");
+    }
+    Expression expression = new Parser().compile(builder.toString(), Collections.singleton("x"));
+    assertEquals(Parser.MAX_DEPTH, expression.getDepth());
+    assertEquals(Parser.MAX_DEPTH, expression.compile().applyAsDouble(1));
+    assertEquals("(1000*x)", expression.simplify().toString());
+    assertEquals(Parser.MAX_DEPTH, expression.derivative("x").evaluate(Collections.singletonMap("x", 1)));
+    assertTrue(expression.toString().length() > 2 * Parser.MAX_DEPTH);
+    String deeper = builder.append("+x").toString();
+    ExpressionException exception = assertThrows(ExpressionException.class, () -> new Parser().compile(deeper,
+        Collections.singleton("x")));
+    assertEquals(deeper.length() - 2, exception.getPosition());
+  }
+
+  @Test
+  void testRegistryFunction() {
+    FunctionRegistry registry = new FunctionRegistry();
+    registry.register(new MathFunction("cube", x -> x * x * x, x -> 3 * x * x));
+    Expression expression = new Parser(registry).compile("cube(x)+1", Collections.singletonList("x"));
+    assertEquals(9, expression.evaluate(Collections.singletonMap("x", 2)));
+    assertEquals("cube'(x)", expression.derivative("x").toString());
+    assertEquals(12, expression.derivative("x").evaluate(Collections.singletonMap("x", 2)));
+    assertEquals("65", new Parser(registry).compile("cube(4)+1").simplify().toString());
+    assertThrows(ExpressionException.class, () -> new Parser().compile("cube(4)"));
+  }
+
+  @Test
+  void testRegistryImpureFunction() {
+    FunctionRegistry registry = new FunctionRegistry();
+    AtomicInteger counter = new AtomicInteger();
+    registry.register(new MathFunction("next", x -> x + counter.incrementAndGet(), null, false));
+    Expression expression = new Parser(registry).compile("next(0)+next(0)").optimize();
+    assertEquals("(next(0.0)+next(0.0))", expression.toString());
+    assertEquals(3, expression.compile().applyAsDouble());
+    assertEquals(7, expression.compile().applyAsDouble());
+  }
+
+  @Test
+  void testRegistryOperator() {
+    FunctionRegistry registry = new FunctionRegistry();
+    registry.register(new MathOperator("&", MathOperator.MEDIUM_PRIORITY, Math::max));
+    assertEquals(6, new Parser(registry).compile("2+3&4").evaluate(null));
+    assertEquals(7, new Parser(registry).compile("(2 + 3) & 4 + 2").evaluate(null));
+    assertThrows(ExpressionException.class, () -> new Parser().compile("3&4"));
+  }
+
+  @Test
+  void testRegistryFailure() {
+    FunctionRegistry registry = new FunctionRegistry();
+    assertThrows(IllegalArgumentException.class, () -> registry.register(new MathFunction("Cube", x -> x)));
+    assertThrows(IllegalArgumentException.class, () -> registry.register(new MathFunction("1st", x -> x)));
+    assertThrows(IllegalArgumentException.class,
+        () -> registry.register(new MathOperator("(", MathOperator.LOW_PRIORITY, Double::sum)));
+    assertThrows(IllegalArgumentException.class, () -> registry.register(new MathOperator("&", 4, Double::sum)));
+  }
+
+  @Test
+  void testRegistryCache() {
+    ExpressionCache cache = new ExpressionCache(4);
+    FunctionRegistry first = new FunctionRegistry();
+    first.register(new MathFunction("f", x -> x + 1));
+    FunctionRegistry second = new FunctionRegistry();
+    second.register(new MathFunction("f", x -> x + 2));
+    assertEquals(2, new Parser(first, cache).compile("f(1)").evaluate(null));
+    assertEquals(3, new Parser(second, cache).compile("f(1)").evaluate(null));
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  void testRegistryCacheReregister() {
+    ExpressionCache cache = new ExpressionCache(4);
+    FunctionRegistry registry = new FunctionRegistry();
+    registry.register(new MathFunction("f", x -> x + 1));
+    Parser parser = new Parser(registry, cache);
+    assertEquals(2, parser.compile("f(1)").evaluate(null));
+    registry.register(new MathFunction("f", x -> x + 2));
+    assertEquals(3, parser.compile("f(1)").evaluate(null));
+    assertEquals(3, parser.compile("f(1)").evaluate(null));
+    assertEquals(1, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+  }
+
+  @Test
+  void testCompileMultipleArguments() {
+    Parser parser = new Parser();
+    assertEquals(3, parser.compile("max(1, -2, 3)").evaluate(null));
+    assertEquals(-2, parser.compile("min(1,-2,3)").evaluate(null));
+    assertEquals(5, parser.compile("hypot(3, 4)").evaluate(null));
+    assertEquals(Math.atan2(1, -1), parser.compile("atan2(1, -1)").evaluate(null));
+    assertEquals(2, parser.compile("clamp(5, 0, 2)").evaluate(null));
+    assertEquals(10, parser.compile("sum(1, 2, 3, 4)").evaluate(null));
+    assertEquals(8, parser.compile("pow(2, 1 + 2)").evaluate(null));
+    assertEquals(-1, parser.compile("if(0, 1, -1)").evaluate(null));
+    assertEquals(9, parser.compile("max((1+2), sin(0), -3)^2").evaluate(null));
+    assertEquals(2, parser.compile("max(min(1, 2), sum(2))").evaluate(null));
+  }
+
+  @Test
+  void testCompileFailureArguments() {
+    Parser parser = new Parser();
+    ExpressionException e = assertThrows(ExpressionException.class, () -> parser.compile("1+sin(1, 2)"));
+    assertEquals("Wrong number of arguments", e.getMessage());
+    assertEquals(2, e.getPosition());
+    e = assertThrows(ExpressionException.class, () -> parser.compile("hypot(1)"));
+    assertEquals("Wrong number of arguments", e.getMessage());
+    e = assertThrows(ExpressionException.class, () -> parser.compile("(1, 2)"));
+    assertEquals("Unexpected comma", e.getMessage());
+    assertEquals(2, e.getPosition());
+    e = assertThrows(ExpressionException.class, () -> parser.compile("max(1,)"));
+    assertEquals("Missing argument", e.getMessage());
+    assertEquals(5, e.getPosition());
+    e = assertThrows(ExpressionException.class, () -> parser.compile("max(1,2"));
+    assertEquals("No expected bracket", e.getMessage());
+  }
 }
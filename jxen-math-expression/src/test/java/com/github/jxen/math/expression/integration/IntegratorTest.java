@@ -0,0 +1,65 @@
+package com.github.jxen.math.expression.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.jxen.math.expression.Expression;
+import com.github.jxen.math.expression.Parser;
+import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class IntegratorTest {
+
+  private final Integrator integrator = new Integrator();
+
+  private final Expression expression = new Parser().compile("exp(-x^2)*cos(3*x)", Collections.singleton("x"));
+
+  private final double expected = Math.sqrt(Math.PI) * Math.exp(-9 / 4.0);
+
+  @Test
+  void testGaussKronrod() {
+    Integral integral = integrator.gaussKronrod(expression, "x", -10, 10);
+    assertTrue(integral.isConverged());
+    assertEquals(expected, integral.getValue(), 1e-10);
+    assertTrue(integral.getError() <= 1e-10);
+    assertEquals(15 * (2 * integral.getIntervals() - 1), integral.getEvaluations());
+  }
+
+  @Test
+  void testSimpson() {
+    Integral integral = integrator.simpson(expression, "x", -10, 10);
+    assertTrue(integral.isConverged());
+    assertEquals(expected, integral.getValue(), 1e-9);
+    assertTrue(integral.getEvaluations() > integrator.gaussKronrod(expression, "x", -10, 10).getEvaluations());
+  }
+
+  @Test
+  void testParallel() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    Integral sequential = integrator.gaussKronrod(expression, "x", -10, 10);
+    Integral parallel = integrator.gaussKronrod(expression, "x", -10, 10, pool);
+    assertEquals(sequential.getValue(), parallel.getValue(), 1e-15);
+    assertEquals(sequential.getEvaluations(), parallel.getEvaluations());
+    assertEquals(expected, integrator.simpson(expression, "x", -10, 10, pool).getValue(), 1e-9);
+    pool.shutdown();
+  }
+
+  @Test
+  void testReversedBounds() {
+    Expression square = new Parser().compile("x^2", Collections.singleton("x"));
+    assertEquals(-9, integrator.gaussKronrod(square, "x", 3, 0).getValue(), 1e-12);
+    assertEquals(9, integrator.simpson(square, "x", 0, 3).getValue(), 1e-12);
+  }
+
+  @Test
+  void testSingularity() {
+    Expression singular = new Parser().compile("1/sqrt(x)", Collections.singleton("x"));
+    Integral integral = new Integrator(1e-12, 5).gaussKronrod(singular, "x", 0, 1);
+    assertFalse(integral.isConverged());
+    assertEquals(2, integral.getValue(), 1e-2);
+    assertThrows(IllegalArgumentException.class, () -> integrator.simpson(singular, "x", 0, Double.POSITIVE_INFINITY));
+  }
+}
@@ -0,0 +1,41 @@
+package com.github.jxen.math.expression.solver;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.jxen.math.expression.CompiledExpression;
+import com.github.jxen.math.expression.Parser;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class MinimizerTest {
+
+  private final Minimizer minimizer = new Minimizer();
+
+  private final CompiledExpression rosenbrock = new Parser()
+      .compile("(1-x)^2 + 100*(y-x^2)^2", Arrays.asList("x", "y")).bind("x", "y");
+
+  @Test
+  void testNelderMead() {
+    Solution solution = minimizer.nelderMead(rosenbrock, new double[] {-1.2, 1}, 0.5);
+    assertTrue(solution.isConverged());
+    assertArrayEquals(new double[] {1, 1}, solution.getPoint(), 1e-3);
+    assertEquals(0, solution.getValue(), 1e-8);
+  }
+
+  @Test
+  void testBfgs() {
+    Solution solution = minimizer.bfgs(rosenbrock, new double[] {-1.2, 1});
+    assertTrue(solution.isConverged());
+    assertArrayEquals(new double[] {1, 1}, solution.getPoint(), 1e-8);
+    assertTrue(solution.getIterations() < 100);
+  }
+
+  @Test
+  void testFailure() {
+    assertThrows(IllegalArgumentException.class, () -> minimizer.bfgs(rosenbrock, new double[] {1}));
+    assertThrows(IllegalArgumentException.class, () -> minimizer.nelderMead(rosenbrock, new double[3], 1));
+  }
+}
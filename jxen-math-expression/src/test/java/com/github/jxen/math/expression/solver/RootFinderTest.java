@@ -0,0 +1,54 @@
+package com.github.jxen.math.expression.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.jxen.math.expression.Expression;
+import com.github.jxen.math.expression.Interval;
+import com.github.jxen.math.expression.Parser;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+class RootFinderTest {
+
+  private final RootFinder finder = new RootFinder();
+
+  @Test
+  void testNewton() {
+    Expression expression = new Parser().compile("x^2 - 2", Collections.singleton("x"));
+    Solution solution = finder.newton(expression, "x", 1);
+    assertTrue(solution.isConverged());
+    assertEquals(Math.sqrt(2), solution.getX(), 1e-12);
+    assertTrue(solution.getIterations() < 10);
+  }
+
+  @Test
+  void testNewtonFlat() {
+    Expression expression = new Parser().compile("x^2 + 1", Collections.singleton("x"));
+    Solution solution = finder.newton(expression, "x", 0);
+    assertFalse(solution.isConverged());
+    assertEquals(0, solution.getIterations());
+  }
+
+  @Test
+  void testBrent() {
+    Expression expression = new Parser().compile("cos(x) - x", Collections.singleton("x"));
+    Solution solution = finder.brent(expression, "x", 0, 1);
+    assertTrue(solution.isConverged());
+    assertEquals(0.7390851332151607, solution.getX(), 1e-12);
+    assertEquals(solution.getIterations() + 2, solution.getEvaluations());
+    assertThrows(IllegalArgumentException.class, () -> finder.brent(expression, "x", 1, 2));
+  }
+
+  @Test
+  void testBracket() {
+    Expression expression = new Parser().compile("x^3 - 100", Collections.singleton("x"));
+    Interval interval = finder.bracket(expression, "x", 0, 1);
+    assertTrue(interval.contains(Math.cbrt(100)));
+    Solution solution = finder.brent(expression, "x", interval.getLower(), interval.getUpper());
+    assertEquals(Math.cbrt(100), solution.getX(), 1e-12);
+    assertTrue(finder.bracket(new Parser().compile("x^2+1", Collections.singleton("x")), "x", 0, 1).isEmpty());
+  }
+}